@@ -0,0 +1,83 @@
+package org.Models;
+
+import org.example.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+// Keeps the raw genre line and only splits it into a list the first time getGenres() is called.
+// forEachGenre reads the genres straight from the line, so validation and index building
+// never create the list for movies that nobody likes.
+public class LazyMovie extends Movie {
+    private final String genreLine;
+    private final SymbolTable symbolTable;
+    private volatile ArrayList<String> genres;
+
+    public LazyMovie(String title, String movieID, String genreLine, SymbolTable symbolTable) {
+        super(title, movieID, null);
+        this.genreLine = genreLine;
+        this.symbolTable = symbolTable;
+    }
+
+    public String getGenreLine() {
+        return genreLine;
+    }
+
+    public boolean isMaterialized() {
+        return genres != null;
+    }
+
+    // Several recommendation threads may get here at once, they all build the same list
+    @Override
+    public ArrayList<String> getGenres() {
+        ArrayList<String> parsed = genres;
+        if (parsed == null) {
+            ArrayList<String> list = new ArrayList<>();
+            scan(list::add);
+            genres = parsed = list;
+        }
+        return parsed;
+    }
+
+    @Override
+    public void forEachGenre(Consumer<String> action) {
+        ArrayList<String> parsed = genres;
+        if (parsed != null) {
+            for (String genre : parsed) {
+                action.accept(genre);
+            }
+            return;
+        }
+        scan(action);
+    }
+
+    // The fields of genreLine.split(","): trailing empty fields are dropped and a line
+    // without any comma is a single field
+    private void scan(Consumer<String> action) {
+        int end = genreLine.length();
+        if (genreLine.indexOf(',') < 0) {
+            action.accept(field(0, end));
+            return;
+        }
+        while (end > 0 && genreLine.charAt(end - 1) == ',') {
+            end--;
+        }
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (genreLine.charAt(i) == ',') {
+                action.accept(field(start, i));
+                start = i + 1;
+            }
+        }
+        if (end > 0) {
+            action.accept(field(start, end));
+        }
+    }
+
+    private String field(int from, int to) {
+        if (symbolTable != null) {
+            return symbolTable.intern(genreLine, from, to);
+        }
+        return genreLine.substring(from, to);
+    }
+}
@@ -1,6 +1,7 @@
 package org.Models;
 
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 public class Movie {
     private  String title;
@@ -21,6 +22,12 @@ public class Movie {
     public ArrayList<String> getGenres() {
         return genres;
     }
+    // Visits the genres in order; index builders use it so a LazyMovie never has to build its list
+    public void forEachGenre(Consumer<String> action) {
+        for (String genre : getGenres()) {
+            action.accept(genre);
+        }
+    }
 
 
 }
@@ -0,0 +1,41 @@
+package org.Models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class MovieIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final ArrayList<Movie> movies;
+    // movie id -> catalog positions carrying that id, ascending
+    private final HashMap<String, int[]> positions = new HashMap<>();
+
+    public MovieIndex(ArrayList<Movie> movies) {
+        this.movies = movies;
+        for (int i = 0; i < movies.size(); i++) {
+            String id = movies.get(i).getMovieID();
+            int[] list = positions.get(id);
+            if (list == null) {
+                positions.put(id, new int[]{i});
+            } else {
+                int[] grown = Arrays.copyOf(list, list.length + 1);
+                grown[list.length] = i;
+                positions.put(id, grown);
+            }
+        }
+    }
+
+    public ArrayList<Movie> getMovies() {
+        return movies;
+    }
+
+    public int[] positionsOf(String movieId) {
+        return positions.getOrDefault(movieId, EMPTY);
+    }
+
+    public Movie get(String movieId) {
+        int[] list = positionsOf(movieId);
+        return list.length == 0 ? null : movies.get(list[0]);
+    }
+}
@@ -4,6 +4,7 @@ import org.example.RecommendationEngine;
 import org.example.UserValidator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Objects;
 
 public class User {
@@ -31,6 +32,8 @@ public class User {
 
     public ArrayList<Movie> getLikedMovies() { return likedMovies; }
 
+    public ArrayList<String> getLikedMoviesId() { return likedMoviesId; }
+
     public boolean setLikedMovies(ArrayList<Movie> availableMovies) {
         if (likedMoviesId == null||likedMoviesId.isEmpty()) {
             return false;
@@ -47,6 +50,30 @@ public class User {
         return count >= likedMoviesId.size();
     }
 
+    // Same result as scanning the catalog: liked movies come out in catalog order,
+    // once per matching liked id
+    public boolean linkLikedMovies(MovieIndex movieIndex) {
+        if (likedMoviesId == null||likedMoviesId.isEmpty()) {
+            return false;
+        }
+        int count = 0;
+        int[] matches = new int[likedMoviesId.size()];
+        for (String id : likedMoviesId) {
+            for (int position : movieIndex.positionsOf(id)) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = position;
+            }
+        }
+        Arrays.sort(matches, 0, count);
+        ArrayList<Movie> movies = movieIndex.getMovies();
+        for (int i = 0; i < count; i++) {
+            this.likedMovies.add(movies.get(matches[i]));
+        }
+        return count >= likedMoviesId.size();
+    }
+
     public void setRecMovies(ArrayList<String> RecMovies) {
         this.RecMovies = RecMovies;
     }
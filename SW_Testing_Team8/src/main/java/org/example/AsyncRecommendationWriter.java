@@ -0,0 +1,124 @@
+package org.example;
+
+import org.Models.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+
+// Writes users on a dedicated thread while they are still being recommended. Workers hand in each
+// finished user with its input index; a ring of `capacity` slots puts them back in input order and
+// bounds how far a worker can run ahead of the file (it waits in submit until its slot is in range).
+public final class AsyncRecommendationWriter implements Closeable {
+    private final User[] ring;
+    private final FileWriteHandler.Output writer;
+    private final Thread thread;
+    // index of the next user to write, users below it are in the file
+    private int next;
+    private boolean closed;
+    private Throwable failure;
+
+    public AsyncRecommendationWriter(FileWriteHandler output) throws IOException {
+        this(output, 1024);
+    }
+
+    public AsyncRecommendationWriter(FileWriteHandler output, int capacity) throws IOException {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+        this.ring = new User[capacity];
+        this.writer = output.openUsers();
+        this.thread = new Thread(this::drain, "recommendation-writer");
+        thread.start();
+    }
+
+    // Returns false once writing has failed or was aborted; the user is dropped then
+    public boolean submit(int index, User user) throws InterruptedException {
+        synchronized (this) {
+            while (failure == null && index >= next + ring.length) {
+                wait();
+            }
+            if (failure != null)
+                return false;
+            ring[index % ring.length] = user;
+            if (index == next)
+                notifyAll();
+            return true;
+        }
+    }
+
+    // Stops the writer and releases every waiting worker, e.g. when a worker failed
+    public synchronized void abort(Throwable cause) {
+        if (failure == null)
+            failure = cause;
+        notifyAll();
+    }
+
+    private void drain() {
+        ArrayList<User> ready = new ArrayList<>();
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (failure == null && ring[next % ring.length] == null && !closed) {
+                        wait();
+                    }
+                    if (failure != null)
+                        return;
+                    // take every consecutive finished user at once, the encoding runs outside the lock
+                    while (ring[next % ring.length] != null) {
+                        ready.add(ring[next % ring.length]);
+                        ring[next % ring.length] = null;
+                        next++;
+                    }
+                    if (ready.isEmpty())
+                        break;
+                    notifyAll();
+                }
+                for (User user : ready) {
+                    writer.add(user);
+                }
+                ready.clear();
+            }
+            // only a complete run replaces the output file
+            writer.commit();
+        }
+        catch (IOException e) {
+            abort(e);
+        }
+        catch (InterruptedException e) {
+            abort(e);
+        }
+        finally {
+            try {
+                writer.close();
+            }
+            catch (IOException e) {
+                abort(e);
+            }
+        }
+    }
+
+    // Waits until every submitted user is written and the file is closed
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (failure == null)
+                System.out.println("Done sucessfully");
+            else
+                System.out.println(failure.getMessage());
+        }
+    }
+
+    public synchronized int getWritten() {
+        return next;
+    }
+}
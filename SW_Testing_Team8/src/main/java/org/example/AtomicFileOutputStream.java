@@ -0,0 +1,168 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Checksum;
+
+// Writes to a hidden temp file next to the target and only renames it over the target in commit(),
+// so readers see either the previous file or the complete new one, never a truncated one.
+// Closing without commit() throws the temp file away. Appending has to write in place.
+// Also a channel, so encoded buffers can be handed over in one gathering write.
+public class AtomicFileOutputStream extends OutputStream implements GatheringByteChannel {
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private Checksum checksum;
+    private long written;
+    private long unsynced;
+    private boolean committed;
+    private boolean closed;
+
+    public AtomicFileOutputStream(Path target, boolean append, FsyncPolicy policy) throws IOException {
+        this.target = target.toAbsolutePath();
+        this.policy = policy;
+        if (append) {
+            temp = null;
+            channel = FileChannel.open(this.target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        else {
+            temp = createTemp(this.target);
+            channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        }
+    }
+
+    // created like the target would be (createTempFile would make it owner-only)
+    private static Path createTemp(Path target) throws IOException {
+        while (true) {
+            Path candidate = target.resolveSibling("." + target.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                return Files.createFile(candidate);
+            }
+            catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        write(new ByteBuffer[] { ByteBuffer.wrap(b, off, len) }, 0, 1);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        return (int) write(new ByteBuffer[] { src }, 0, 1);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+        return write(srcs, 0, srcs.length);
+    }
+
+    // Writes every remaining byte of the buffers, unlike a plain channel that may stop early
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        if (closed)
+            throw new ClosedChannelException();
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (checksum != null) checksum.update(srcs[i].duplicate());
+            total += srcs[i].remaining();
+        }
+        long left = total;
+        while (left > 0) {
+            left -= channel.write(srcs, offset, length);
+        }
+        written += total;
+        unsynced += total;
+        if (policy.getInterval() > 0 && unsynced >= policy.getInterval()) {
+            channel.force(false);
+            unsynced = 0;
+        }
+        return total;
+    }
+
+    // Sees every byte as it goes to the file, e.g. for a manifest
+    public void setChecksum(Checksum checksum) {
+        this.checksum = checksum;
+    }
+
+    // Everything written through wrapping streams must be flushed to this one before
+    public void commit() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        if (policy.syncsOnClose()) channel.force(false);
+        channel.close();
+        closed = true;
+        if (temp != null) {
+            try {
+                move();
+            }
+            catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            if (policy.syncsOnClose()) syncDirectory();
+        }
+        committed = true;
+    }
+
+    private void move() throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // the rename itself is only durable once the directory entry is on disk
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+        catch (IOException e) {
+            // directories cannot be opened for syncing on every platform
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        channel.close();
+        if (!committed && temp != null) Files.deleteIfExists(temp);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+}
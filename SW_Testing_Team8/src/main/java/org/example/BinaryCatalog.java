@@ -0,0 +1,369 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.MovieIndex;
+import org.Models.User;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+// Compiled form of validated movies.txt/users.txt:
+//   header      magic, version, size and modification time of both text sources
+//   strings     every distinct title, name, id and genre once, UTF-8
+//   genres      genre ordinal -> string
+//   movies      fixed-width records {title, id, first genre, genre count} + genre ordinals
+//   users       fixed-width records {name, id, first liked id, liked count} + liked id strings
+public class BinaryCatalog {
+    private static final int MAGIC = 0x4D524331;
+    private static final int VERSION = 1;
+    // a single mapping is limited to 2 GB, larger catalogs are read through consecutive windows
+    private static final int defaultWindowSize = 1 << 28;
+
+    private final ArrayList<Movie> movies;
+    private final ArrayList<User> users;
+
+    private BinaryCatalog(ArrayList<Movie> movies, ArrayList<User> users) {
+        this.movies = movies;
+        this.users = users;
+    }
+
+    public ArrayList<Movie> getMovies() {
+        return movies;
+    }
+
+    // Users come back with their liked movies already linked
+    public ArrayList<User> getUsers() {
+        return users;
+    }
+
+    // Parses and validates the text inputs, then compiles them. Returns the first validation
+    // error (nothing is written then) or null.
+    public static String compile(String moviesPath, String usersPath, String catalogPath) {
+        Sources sources = Sources.of(moviesPath, usersPath);
+        FileHandler fileHandler = new FileHandler();
+        ArrayList<Movie> movies = fileHandler.readMovies(moviesPath);
+        String error = MovieRecommendationApp.validateMovies(movies, new MovieValidator());
+        if (error != null)
+            return error;
+        ArrayList<User> users = fileHandler.readUser(usersPath);
+        error = MovieRecommendationApp.validateUsers(users, new UserValidator(), new MovieIndex(movies));
+        if (error != null)
+            return error;
+        compile(catalogPath, movies, users, sources);
+        return null;
+    }
+
+    // Writes movies and users that already passed validation. The sources must be taken before the
+    // inputs were read, so an input edited in between makes the catalog stale instead of hiding the edit.
+    public static void compile(String catalogPath, ArrayList<Movie> movies, ArrayList<User> users,
+                               Sources sources) {
+        if (sources == null)
+            return;
+        Path target = Path.of(catalogPath).toAbsolutePath();
+        try {
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                    writeCatalog(out, movies, users, sources);
+                }
+                // a half written catalog must never look fresh
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static BinaryCatalog load(String catalogPath) {
+        return read(Path.of(catalogPath), null, defaultWindowSize);
+    }
+
+    static BinaryCatalog load(String catalogPath, int windowSize) {
+        return read(Path.of(catalogPath), null, windowSize);
+    }
+
+    // Null when the catalog is missing, unreadable or either text source changed since it was compiled
+    public static BinaryCatalog loadIfFresh(String catalogPath, String moviesPath, String usersPath) {
+        Path catalog = Path.of(catalogPath);
+        if (!Files.isRegularFile(catalog))
+            return null;
+        Sources current = Sources.of(moviesPath, usersPath);
+        if (current == null)
+            return null;
+        return read(catalog, current, defaultWindowSize);
+    }
+
+    // Any failure, including a truncated or corrupt file, means the text inputs are parsed instead
+    private static BinaryCatalog read(Path catalog, Sources expected, int windowSize) {
+        try (FileChannel channel = FileChannel.open(catalog, StandardOpenOption.READ)) {
+            WindowedInput in = new WindowedInput(channel, windowSize);
+            readHeader(in);
+            Sources compiled = new Sources(in.getLong(), in.getLong(), in.getLong(), in.getLong());
+            if (expected != null && !expected.equals(compiled))
+                return null;
+            return readCatalog(in);
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static void writeCatalog(DataOutputStream out, ArrayList<Movie> movies, ArrayList<User> users,
+                                     Sources sources) throws IOException {
+        GenreDictionary dictionary = new GenreDictionary(movies);
+        LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+        for (Movie m : movies) {
+            intern(strings, m.getTitle());
+            intern(strings, m.getMovieID());
+        }
+        for (int g = 0; g < dictionary.size(); g++) {
+            intern(strings, dictionary.genre(g));
+        }
+        for (User u : users) {
+            intern(strings, u.getName());
+            intern(strings, u.getId());
+            for (String id : u.getLikedMoviesId()) {
+                intern(strings, id);
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sources.moviesSize);
+        out.writeLong(sources.moviesModified);
+        out.writeLong(sources.usersSize);
+        out.writeLong(sources.usersModified);
+
+        out.writeInt(strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeInt(dictionary.size());
+        for (int g = 0; g < dictionary.size(); g++) {
+            out.writeInt(strings.get(dictionary.genre(g)));
+        }
+
+        out.writeInt(movies.size());
+        int genreStart = 0;
+        for (Movie m : movies) {
+            out.writeInt(strings.get(m.getTitle()));
+            out.writeInt(strings.get(m.getMovieID()));
+            out.writeInt(genreStart);
+            out.writeInt(m.getGenres().size());
+            genreStart += m.getGenres().size();
+        }
+        out.writeInt(genreStart);
+        for (Movie m : movies) {
+            for (String genre : m.getGenres()) {
+                out.writeInt(dictionary.ordinal(genre));
+            }
+        }
+
+        out.writeInt(users.size());
+        int likedStart = 0;
+        for (User u : users) {
+            out.writeInt(strings.get(u.getName()));
+            out.writeInt(strings.get(u.getId()));
+            out.writeInt(likedStart);
+            out.writeInt(u.getLikedMoviesId().size());
+            likedStart += u.getLikedMoviesId().size();
+        }
+        out.writeInt(likedStart);
+        for (User u : users) {
+            for (String id : u.getLikedMoviesId()) {
+                out.writeInt(strings.get(id));
+            }
+        }
+    }
+
+    private static void intern(LinkedHashMap<String, Integer> strings, String s) {
+        strings.putIfAbsent(s, strings.size());
+    }
+
+    private static void readHeader(WindowedInput in) throws IOException {
+        if (in.remaining() < 8 || in.getInt() != MAGIC)
+            throw new IOException("Not a compiled movie catalog");
+        int version = in.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported catalog version " + version);
+    }
+
+    // Sections are read front to back, so no offset ever has to fit in a single mapping
+    private static BinaryCatalog readCatalog(WindowedInput in) throws IOException {
+        String[] strings = new String[in.count(4)];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.count(1);
+            if (scratch.length < length)
+                scratch = new byte[length];
+            in.get(scratch, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        String[] genres = new String[in.count(4)];
+        for (int g = 0; g < genres.length; g++) {
+            genres[g] = strings[in.getInt()];
+        }
+
+        int[] movieRecords = in.records(4);
+        int[] ordinals = in.records(1);
+        ArrayList<Movie> movies = new ArrayList<>(movieRecords.length / 4);
+        for (int record = 0; record < movieRecords.length; record += 4) {
+            int genreStart = movieRecords[record + 2];
+            int genreCount = movieRecords[record + 3];
+            ArrayList<String> movieGenres = new ArrayList<>(genreCount);
+            for (int g = 0; g < genreCount; g++) {
+                movieGenres.add(genres[ordinals[genreStart + g]]);
+            }
+            movies.add(new Movie(strings[movieRecords[record]], strings[movieRecords[record + 1]], movieGenres));
+        }
+
+        int[] userRecords = in.records(4);
+        int[] likedRefs = in.records(1);
+        MovieIndex movieIndex = new MovieIndex(movies);
+        ArrayList<User> users = new ArrayList<>(userRecords.length / 4);
+        for (int record = 0; record < userRecords.length; record += 4) {
+            int likedStart = userRecords[record + 2];
+            int likedCount = userRecords[record + 3];
+            ArrayList<String> likedMoviesId = new ArrayList<>(likedCount);
+            for (int l = 0; l < likedCount; l++) {
+                likedMoviesId.add(strings[likedRefs[likedStart + l]]);
+            }
+            User user = new User(strings[userRecords[record]], strings[userRecords[record + 1]], likedMoviesId);
+            user.linkLikedMovies(movieIndex);
+            users.add(user);
+        }
+        return new BinaryCatalog(movies, users);
+    }
+
+    // Size and modification time of both text inputs
+    public static final class Sources {
+        final long moviesSize;
+        final long moviesModified;
+        final long usersSize;
+        final long usersModified;
+
+        private Sources(long moviesSize, long moviesModified, long usersSize, long usersModified) {
+            this.moviesSize = moviesSize;
+            this.moviesModified = moviesModified;
+            this.usersSize = usersSize;
+            this.usersModified = usersModified;
+        }
+
+        // Null when either input cannot be read
+        public static Sources of(String moviesPath, String usersPath) {
+            try {
+                Path movies = Path.of(moviesPath);
+                Path users = Path.of(usersPath);
+                return new Sources(Files.size(movies), Files.getLastModifiedTime(movies).toMillis(),
+                        Files.size(users), Files.getLastModifiedTime(users).toMillis());
+            }
+            catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Sources)) return false;
+            Sources sources = (Sources) other;
+            return moviesSize == sources.moviesSize && moviesModified == sources.moviesModified
+                    && usersSize == sources.usersSize && usersModified == sources.usersModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(moviesSize ^ moviesModified ^ usersSize ^ usersModified);
+        }
+    }
+
+    // Reads the catalog sequentially through mappings of at most windowSize bytes
+    private static final class WindowedInput {
+        private final FileChannel channel;
+        private final long size;
+        private final int windowSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        WindowedInput(FileChannel channel, int windowSize) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowSize = Math.max(windowSize, Long.BYTES);
+        }
+
+        long remaining() {
+            return size - position();
+        }
+
+        private long position() {
+            return window == null ? 0 : windowStart + window.position();
+        }
+
+        // Maps a new window at the current position when fewer than bytes are left in this one
+        private void ensure(int bytes) throws IOException {
+            if (window != null && window.remaining() >= bytes)
+                return;
+            long at = position();
+            if (size - at < bytes)
+                throw new IOException("Catalog ends early at byte " + at);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(windowSize, size - at));
+            windowStart = at;
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return window.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return window.getLong();
+        }
+
+        void get(byte[] target, int length) throws IOException {
+            int done = 0;
+            while (done < length) {
+                ensure(1);
+                int chunk = Math.min(length - done, window.remaining());
+                window.get(target, done, chunk);
+                done += chunk;
+            }
+        }
+
+        // A count of items of at least bytesEach bytes, checked against what is left of the file
+        int count(int bytesEach) throws IOException {
+            long at = position();
+            int count = getInt();
+            if (count < 0 || (long) count * bytesEach > remaining())
+                throw new IOException("Catalog is corrupt at byte " + at);
+            return count;
+        }
+
+        // A count followed by that many records of ints ints each
+        int[] records(int ints) throws IOException {
+            int[] values = new int[count(ints * Integer.BYTES) * ints];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getInt();
+            }
+            return values;
+        }
+    }
+}
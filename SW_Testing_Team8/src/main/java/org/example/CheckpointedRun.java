@@ -0,0 +1,385 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.MovieIndex;
+import org.Models.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Batch run over users.txt that records a checkpoint every few thousand users. A run that is
+// restarted with the same checkpoint file continues after the last checkpoint and leaves the
+// same recommendations.txt (or error) as an uninterrupted run.
+// The checkpoint itself is small and replaced atomically; the movie and user IDs seen so far go to an
+// append-only journal next to it (<checkpoint>.ids), each checkpoint adding only the IDs since the last one.
+public class CheckpointedRun {
+    private static final int MAGIC = 0x4D524350;
+    private static final int VERSION = 2;
+
+    private final String moviesFilePath;
+    private final String usersFilePath;
+    private final Path checkpointPath;
+    private final FileHandler fileHandler = new FileHandler();
+    private String outputPath;
+    private boolean compressed;
+    private int threads = 1;
+    private int checkpointEvery = 50000;
+    private boolean resumed;
+
+    public CheckpointedRun(String moviesFilePath, String usersFilePath, String checkpointPath) {
+        this.moviesFilePath = moviesFilePath;
+        this.usersFilePath = usersFilePath;
+        this.checkpointPath = Path.of(checkpointPath).toAbsolutePath();
+    }
+
+    public void setOutputPath(String outputPath) {
+        this.outputPath = outputPath;
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    // users handled between two checkpoints
+    public void setCheckpointEvery(int checkpointEvery) {
+        this.checkpointEvery = Math.max(1, checkpointEvery);
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public void run() {
+        MovieValidator movieValidator = new MovieValidator();
+        UserValidator userValidator = new UserValidator();
+        ArrayList<Movie> movies = fileHandler.readMoviesReadAhead(moviesFilePath);
+        FileWriteHandler probe = writer(null);
+
+        Checkpoint checkpoint = Checkpoint.load(checkpointPath);
+        resumed = checkpoint != null && checkpoint.matches(moviesFilePath, usersFilePath);
+        // running CRC of the users file up to the last checkpoint; a leftover checkpoint of other users is ignored
+        CRC32 usersCrc = new CRC32();
+        if (resumed) {
+            try {
+                update(usersCrc, Path.of(usersFilePath), 0, checkpoint.usersOffset);
+                resumed = usersCrc.getValue() == checkpoint.usersCrc;
+            }
+            catch (IOException e) {
+                resumed = false;
+            }
+            if (!resumed) usersCrc.reset();
+        }
+        long offset = 0;
+        if (resumed) {
+            // the movies were validated before the first checkpoint and have not changed since
+            movieValidator.setId_list(checkpoint.movieIds);
+            userValidator.setUserIdList(checkpoint.userIds);
+            offset = checkpoint.usersOffset;
+            if (!truncate(Path.of(probe.getOutputPath()), checkpoint.outputLength)) {
+                resumed = false;
+                offset = 0;
+                usersCrc.reset();
+                movieValidator = new MovieValidator();
+                userValidator = new UserValidator();
+            }
+        }
+        Path journalPath = Checkpoint.journalPath(checkpointPath);
+        // IDs already in the journal; a fresh run starts an empty one
+        int savedMovies = resumed ? checkpoint.movieIds.size() : 0;
+        int savedUsers = resumed ? checkpoint.userIds.size() : 0;
+        long journalLength = resumed ? checkpoint.journalLength : 0;
+        long crcOffset = offset;
+        if (!resumed) {
+            String firstError = MovieRecommendationApp.validateMovies(movies, movieValidator);
+            if (firstError != null) {
+                finish(firstError);
+                return;
+            }
+        }
+
+        UserRecordReader reader = new UserRecordReader(usersFilePath, offset);
+        reader.setSymbolTable(fileHandler.getSymbolTable());
+        MovieIndex movieIndex = new MovieIndex(movies);
+        RecommendationEngine engine = new RecommendationEngine(new GenreIndex(movies));
+        boolean append = resumed;
+        while (true) {
+            ArrayList<User> batch = new ArrayList<>();
+            String[] firstError = new String[1];
+            UserValidator validator = userValidator;
+            int read;
+            try {
+                read = reader.readAvailable(checkpointEvery, true, user -> {
+                    if (firstError[0] != null) return;
+                    firstError[0] = MovieRecommendationApp.validateUser(user, validator, movieIndex);
+                    if (firstError[0] == null) batch.add(user);
+                });
+            }
+            catch (IOException e) {
+                // the checkpoint is kept, a fixed users file can resume from it
+                e.printStackTrace();
+                return;
+            }
+            if (firstError[0] != null) {
+                finish(firstError[0]);
+                return;
+            }
+
+            engine.recommendAll(batch, movies, threads);
+            FileWriteHandler outputWriter = writer(batch);
+            outputWriter.setAppend(append);
+            outputWriter.write();
+            append = true;
+            if (read < checkpointEvery) break;
+
+            try {
+                Path output = Path.of(outputWriter.getOutputPath());
+                // the output must be on disk before a checkpoint points past it
+                try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                update(usersCrc, Path.of(usersFilePath), crcOffset, reader.getOffset());
+                crcOffset = reader.getOffset();
+                List<String> movieIds = movieValidator.getId_list();
+                List<String> userIds = userValidator.getUserIdList();
+                journalLength = Checkpoint.appendJournal(journalPath, journalLength,
+                        movieIds.subList(savedMovies, movieIds.size()), userIds.subList(savedUsers, userIds.size()));
+                savedMovies = movieIds.size();
+                savedUsers = userIds.size();
+                new Checkpoint(moviesFilePath, usersFilePath, reader.getOffset(), usersCrc.getValue(),
+                        Files.size(output), savedMovies, savedUsers, journalLength).save(checkpointPath);
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        finish(null);
+    }
+
+    private FileWriteHandler writer(ArrayList<User> users) {
+        FileWriteHandler outputWriter = new FileWriteHandler(users);
+        if (outputPath != null) outputWriter.setFilePath(outputPath);
+        outputWriter.setCompressed(compressed);
+        return outputWriter;
+    }
+
+    // An error replaces the output like in a normal run; either way the run is over
+    private void finish(String error) {
+        if (error != null) {
+            FileWriteHandler errorWriter = new FileWriteHandler(error);
+            if (outputPath != null) errorWriter.setFilePath(outputPath);
+            errorWriter.setCompressed(compressed);
+            errorWriter.write();
+        }
+        try {
+            Files.deleteIfExists(checkpointPath);
+            Files.deleteIfExists(Checkpoint.journalPath(checkpointPath));
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Adds the bytes [from, to) of the file to the CRC
+    private static void update(CRC32 crc, Path file, long from, long to) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            long position = from;
+            while (position < to) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+                int read = channel.read(buffer, position);
+                if (read < 0)
+                    throw new IOException("Users file is shorter than the checkpoint: " + file);
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+        }
+    }
+
+    // Cuts off whatever was written after the checkpoint; false when the output is shorter than recorded
+    private static boolean truncate(Path output, long length) {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) return false;
+            channel.truncate(length);
+            return true;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    static class Checkpoint {
+        final String moviesFile;
+        final long moviesSize;
+        final long moviesModified;
+        final String usersFile;
+        final long usersOffset;
+        // CRC32 of the users file up to usersOffset
+        final long usersCrc;
+        final long outputLength;
+        final long journalLength;
+        final int movieCount;
+        final int userCount;
+        // read back from the journal by load
+        List<String> movieIds;
+        List<String> userIds;
+
+        Checkpoint(String moviesFilePath, String usersFilePath, long usersOffset, long usersCrc, long outputLength,
+                   int movieCount, int userCount, long journalLength) throws IOException {
+            Path movies = Path.of(moviesFilePath).toAbsolutePath();
+            this.moviesFile = movies.toString();
+            this.moviesSize = Files.size(movies);
+            this.moviesModified = Files.getLastModifiedTime(movies).toMillis();
+            this.usersFile = Path.of(usersFilePath).toAbsolutePath().toString();
+            this.usersOffset = usersOffset;
+            this.usersCrc = usersCrc;
+            this.outputLength = outputLength;
+            this.movieCount = movieCount;
+            this.userCount = userCount;
+            this.journalLength = journalLength;
+        }
+
+        private Checkpoint(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("Not a checkpoint file");
+            moviesFile = in.readUTF();
+            moviesSize = in.readLong();
+            moviesModified = in.readLong();
+            usersFile = in.readUTF();
+            usersOffset = in.readLong();
+            usersCrc = in.readLong();
+            outputLength = in.readLong();
+            movieCount = in.readInt();
+            userCount = in.readInt();
+            journalLength = in.readLong();
+        }
+
+        static Path journalPath(Path checkpointPath) {
+            return checkpointPath.resolveSibling(checkpointPath.getFileName() + ".ids");
+        }
+
+        // Same inputs, movies untouched and users still holding everything before the offset.
+        // Whether those users are the same bytes is checked by the run against usersCrc.
+        boolean matches(String moviesFilePath, String usersFilePath) {
+            try {
+                Path movies = Path.of(moviesFilePath).toAbsolutePath();
+                Path users = Path.of(usersFilePath).toAbsolutePath();
+                return moviesFile.equals(movies.toString()) && usersFile.equals(users.toString())
+                        && Files.size(movies) == moviesSize
+                        && Files.getLastModifiedTime(movies).toMillis() == moviesModified
+                        && Files.size(users) >= usersOffset;
+            }
+            catch (IOException e) {
+                return false;
+            }
+        }
+
+        // Null when there is no checkpoint or its journal does not hold the IDs it counts
+        static Checkpoint load(Path checkpointPath) {
+            Checkpoint checkpoint;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+                checkpoint = new Checkpoint(in);
+            }
+            catch (NoSuchFileException e) {
+                return null;
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+            // entries past journalLength come from a checkpoint that never completed
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(journalPath(checkpointPath), StandardOpenOption.READ)), 1 << 16))) {
+                checkpoint.movieIds = readIds(in, checkpoint.movieCount);
+                checkpoint.userIds = readIds(in, checkpoint.userCount);
+                return checkpoint;
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+
+        // Movie IDs come before user IDs, and every movie ID is written with the first checkpoint
+        private static List<String> readIds(DataInputStream in, int count) throws IOException {
+            ArrayList<String> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(in.readUTF());
+            }
+            return ids;
+        }
+
+        // Appends the new IDs after the first `length` bytes of the journal, dropping anything beyond them,
+        // and returns the new length once it is on disk
+        static long appendJournal(Path journalPath, long length, List<String> movieIds, List<String> userIds)
+                throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                for (String id : movieIds) {
+                    out.writeUTF(id);
+                }
+                for (String id : userIds) {
+                    out.writeUTF(id);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                long position = length;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                channel.force(true);
+                return position;
+            }
+        }
+
+        // Written next to the target and moved over it, a crash leaves the previous checkpoint intact
+        void save(Path checkpointPath) throws IOException {
+            Path temp = Files.createTempFile(checkpointPath.getParent(), checkpointPath.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                             Channels.newOutputStream(channel), 1 << 16))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(moviesFile);
+                    out.writeLong(moviesSize);
+                    out.writeLong(moviesModified);
+                    out.writeUTF(usersFile);
+                    out.writeLong(usersOffset);
+                    out.writeLong(usersCrc);
+                    out.writeLong(outputLength);
+                    out.writeInt(movieCount);
+                    out.writeInt(userCount);
+                    out.writeLong(journalLength);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
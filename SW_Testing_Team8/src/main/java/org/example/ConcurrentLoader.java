@@ -0,0 +1,79 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.MovieIndex;
+import org.Models.User;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Reads users on a separate thread while movies are read and validated on the caller's thread.
+// The two only meet when liked movies are linked, and errors keep the sequential order:
+// an invalid movie wins over anything wrong with the users.
+public class ConcurrentLoader {
+    private final ShardedInput input;
+    private ArrayList<Movie> movies;
+    private ArrayList<User> users;
+
+    public ConcurrentLoader(ShardedInput input) {
+        this.input = input;
+    }
+
+    public ArrayList<Movie> getMovies() {
+        return movies;
+    }
+
+    // null when loading stopped at an invalid movie
+    public ArrayList<User> getUsers() {
+        return users;
+    }
+
+    // First validation error, or null when both files are valid and every user is linked
+    public String load(String moviesFilePath, String usersFilePath,
+                       MovieValidator movieValidator, UserValidator userValidator) {
+        ExecutorService usersLoader = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "users-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<ArrayList<User>> pendingUsers = usersLoader.submit(() -> input.readUsers(usersFilePath));
+
+            movies = input.readMovies(moviesFilePath);
+            String firstError = MovieRecommendationApp.validateMovies(movies, movieValidator);
+            if (firstError != null) {
+                pendingUsers.cancel(true);
+                return firstError;
+            }
+            MovieIndex movieIndex = new MovieIndex(movies);
+
+            users = await(pendingUsers);
+            return MovieRecommendationApp.validateUsers(users, userValidator, movieIndex);
+        }
+        finally {
+            usersLoader.shutdown();
+        }
+    }
+
+    // Failures of the users thread surface here as they would have in a sequential read
+    private static ArrayList<User> await(Future<ArrayList<User>> pendingUsers) {
+        try {
+            return pendingUsers.get();
+        }
+        catch (InterruptedException e) {
+            // an empty list would pass validation and write an empty output
+            pendingUsers.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading users", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
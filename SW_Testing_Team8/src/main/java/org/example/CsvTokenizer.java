@@ -0,0 +1,101 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class CsvTokenizer {
+    private CharSequence text;
+    private ByteBuffer bytes;
+    // start and end offset of every field, reused from line to line
+    private int[] bounds = new int[16];
+    private int count;
+    private byte[] scratch = new byte[256];
+
+    public CsvTokenizer reset(CharSequence line) {
+        return reset(line, 0, line.length());
+    }
+
+    public CsvTokenizer reset(CharSequence text, int from, int to) {
+        this.text = text;
+        this.bytes = null;
+        return tokenize(from, to);
+    }
+
+    // UTF-8 bytes; ',' never appears inside a multi-byte sequence so offsets can be found bytewise
+    public CsvTokenizer reset(ByteBuffer bytes, int from, int to) {
+        this.text = null;
+        this.bytes = bytes;
+        return tokenize(from, to);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int start(int field) {
+        return bounds[2 * Objects.checkIndex(field, count)];
+    }
+
+    public int end(int field) {
+        return bounds[2 * Objects.checkIndex(field, count) + 1];
+    }
+
+    public String field(int field) {
+        int start = start(field);
+        int end = end(field);
+        if (text != null)
+            return text.subSequence(start, end).toString();
+        int length = end - start;
+        if (bytes.hasArray())
+            return new String(bytes.array(), bytes.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        if (scratch.length < length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        bytes.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // The canonical instance from the table, only allocated the first time the value is seen
+    public String field(int field, SymbolTable symbols) {
+        int start = start(field);
+        int end = end(field);
+        if (text != null)
+            return symbols.intern(text, start, end);
+        String symbol = symbols.internAscii(bytes, start, end);
+        return symbol != null ? symbol : symbols.intern(field(field));
+    }
+
+    // Same fields as String.split(","): trailing empty fields are dropped,
+    // a line without any comma is a single field even when it is empty
+    private CsvTokenizer tokenize(int from, int to) {
+        count = 0;
+        int start = from;
+        for (int i = from; i < to; i++) {
+            if (charAt(i) == ',') {
+                add(start, i);
+                start = i + 1;
+            }
+        }
+        if (count == 0) {
+            add(from, to);
+            return this;
+        }
+        add(start, to);
+        while (count > 0 && bounds[2 * count - 2] == bounds[2 * count - 1])
+            count--;
+        return this;
+    }
+
+    private int charAt(int i) {
+        return text != null ? text.charAt(i) : bytes.get(i);
+    }
+
+    private void add(int start, int end) {
+        if (2 * count + 2 > bounds.length)
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        bounds[2 * count] = start;
+        bounds[2 * count + 1] = end;
+        count++;
+    }
+}
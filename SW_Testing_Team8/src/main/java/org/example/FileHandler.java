@@ -1,32 +1,86 @@
 package org.example;
 
+import org.Models.LazyMovie;
 import org.Models.Movie;
+import org.Models.MovieIndex;
 import org.Models.User;
 
-import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class FileHandler {
+    // genres and movie IDs repeat across records, every reader shares one instance of each
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    public SymbolTable getSymbolTable(){
+        return symbolTable;
+    }
+
     public ArrayList<Movie> readMovies(String filePathMovie){
+        return readAll(filePathMovie, false, this::readMovie);
+    }
+    // A background thread reads ahead into pooled buffers while this thread parses
+    public ArrayList<Movie> readMoviesReadAhead(String filePathMovie){
+        return readAll(filePathMovie, true, this::readMovie);
+    }
+    // Movies keep their raw genre line and split it on first use, see LazyMovie
+    public ArrayList<Movie> readMoviesLazy(String filePathMovie){
+        return readAll(filePathMovie, true, this::readLazyMovie);
+    }
+    // Reads the catalog through memory-mapped windows, only the kept fields become Strings
+    public ArrayList<Movie> readMoviesMapped(String filePathMovie){
+        // compressed bytes cannot be mapped, they are streamed instead
+        if(isCompressed(filePathMovie)){
+            return readMoviesReadAhead(filePathMovie);
+        }
+        return new MappedMovieReader(symbolTable).readMovies(filePathMovie);
+    }
+    public ArrayList<User> readUser(String filePathUser){
+        return readAll(filePathUser, false, this::readUser);
+    }
+    public ArrayList<User> readUserReadAhead(String filePathUser){
+        return readAll(filePathUser, true, this::readUser);
+    }
+    // Parse and validate in one pass, with the rules and order of MovieRecommendationApp.validateMovie.
+    // Names, titles and genres are checked inside the line before any String is made for them.
+    // Returns null at the first invalid record; its message is the first entry of the validator's error log.
+    public ArrayList<Movie> readMoviesValidated(String filePathMovie, MovieValidator movieValidator){
         ArrayList<Movie> movies = new ArrayList<>();
-        BufferedReader reader;
-        try{
-            reader = new BufferedReader(new FileReader(filePathMovie));
-            String line;
-            String[] splittedLine;
-            String title;
-            String MovieID;
-            while((line  = reader.readLine()) != null){
-                splittedLine = line.split(",");
-                title = splittedLine[0];
-                MovieID = splittedLine[1];
-                line  = reader.readLine();
-                splittedLine = line.split(",");
-                ArrayList<String> genres =  new ArrayList<>();
-                for (String genre : splittedLine) {
-                    genres.add(genre);
+        try(LineReader reader = new LineReader(open(filePathMovie, true))){
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            CharSequence line;
+            while((line = reader.readLine()) != null){
+                tokenizer.reset(line);
+                if(!movieValidator.validateMovieTitle(line, tokenizer.start(0), tokenizer.end(0))){
+                    return null;
+                }
+                String MovieID = tokenizer.field(1, symbolTable);
+                if(!movieValidator.validateMovieIdFull(MovieID)){
+                    return null;
+                }
+                movieValidator.getId_list().add(MovieID);
+                // the line buffer is reused by the next readLine
+                String title = tokenizer.field(0);
+
+                line = reader.readLine();
+                tokenizer.reset(line);
+                ArrayList<String> genres =  new ArrayList<>(tokenizer.count());
+                for (int i = 0; i < tokenizer.count(); i++) {
+                    if(!movieValidator.validateMovieGenre(line, tokenizer.start(i), tokenizer.end(i))){
+                        return null;
+                    }
+                    genres.add(tokenizer.field(i, symbolTable));
                 }
                 movies.add(new Movie(title, MovieID, genres));
             }
@@ -36,26 +90,34 @@ public class FileHandler {
         }
         return movies;
     }
-    public ArrayList<User> readUser(String filePathUser){
+    // Users are also linked to their liked movies, as MovieRecommendationApp.validateUser does
+    public ArrayList<User> readUsersValidated(String filePathUser, UserValidator userValidator, MovieIndex movieIndex){
         ArrayList<User> users = new ArrayList<>();
-        BufferedReader reader;
-        try{
-            reader = new BufferedReader(new FileReader(filePathUser));
-            String line;
-            String[] splittedLine;
-            String UserName;
-            String UserID;
-            while((line  = reader.readLine()) != null){
-                splittedLine = line.split(",");
-                UserName = splittedLine[0];
-                UserID = splittedLine[1];
-                line  = reader.readLine();
-                splittedLine = line.split(",");
-                ArrayList<String> likedMoviesID =  new ArrayList<>();
-                for (String likedMovieID : splittedLine) {
-                    likedMoviesID.add(likedMovieID);
+        try(LineReader reader = new LineReader(open(filePathUser, true))){
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            CharSequence line;
+            while((line = reader.readLine()) != null){
+                tokenizer.reset(line);
+                if(!userValidator.validateUserName(line, tokenizer.start(0), tokenizer.end(0))){
+                    return null;
+                }
+                String UserID = tokenizer.field(1);
+                if(!userValidator.validateUserId(UserID)){
+                    return null;
+                }
+                String UserName = tokenizer.field(0);
+
+                tokenizer.reset(reader.readLine());
+                ArrayList<String> likedMoviesID =  new ArrayList<>(tokenizer.count());
+                for (int i = 0; i < tokenizer.count(); i++) {
+                    likedMoviesID.add(tokenizer.field(i, symbolTable));
+                }
+                User user = new User(UserName, UserID, likedMoviesID);
+                userValidator.validateLikedMovieList(user.linkLikedMovies(movieIndex));
+                if(!userValidator.getExceptionHandler().getErrorLog().isEmpty()){
+                    return null;
                 }
-                users.add(new User(UserName, UserID, likedMoviesID));
+                users.add(user);
             }
         }
         catch(IOException e){
@@ -63,4 +125,177 @@ public class FileHandler {
         }
         return users;
     }
+
+    // Splits the file into byte ranges parsed on all cores, users keep their file order
+    public ArrayList<User> readUserParallel(String filePathUser){
+        if(isCompressed(filePathUser)){
+            return readUserReadAhead(filePathUser);
+        }
+        return new ParallelUserParser(this, Runtime.getRuntime().availableProcessors()).readUser(filePathUser);
+    }
+
+    // Lazy variants: records are parsed one at a time as the stream is consumed.
+    // Close the stream (try-with-resources) to release the file.
+    public Stream<Movie> streamMovies(String filePathMovie){
+        return stream(filePathMovie, this::readMovie);
+    }
+    public Stream<User> streamUsers(String filePathUser){
+        return stream(filePathUser, this::readUser);
+    }
+
+    // One two-line record, or null at the end of the file. Lines are tokenized in place,
+    // only the fields kept in the model become Strings.
+    Movie readMovie(LineReader reader, CsvTokenizer tokenizer) throws IOException{
+        CharSequence line = reader.readLine();
+        if(line == null){
+            return null;
+        }
+        tokenizer.reset(line);
+        String title = tokenizer.field(0);
+        String MovieID = tokenizer.field(1, symbolTable);
+        tokenizer.reset(reader.readLine());
+        ArrayList<String> genres =  new ArrayList<>(tokenizer.count());
+        for (int i = 0; i < tokenizer.count(); i++) {
+            genres.add(tokenizer.field(i, symbolTable));
+        }
+        return new Movie(title, MovieID, genres);
+    }
+    Movie readLazyMovie(LineReader reader, CsvTokenizer tokenizer) throws IOException{
+        CharSequence line = reader.readLine();
+        if(line == null){
+            return null;
+        }
+        tokenizer.reset(line);
+        String title = tokenizer.field(0);
+        String MovieID = tokenizer.field(1, symbolTable);
+        return new LazyMovie(title, MovieID, reader.readLine().toString(), symbolTable);
+    }
+    User readUser(LineReader reader, CsvTokenizer tokenizer) throws IOException{
+        CharSequence line = reader.readLine();
+        if(line == null){
+            return null;
+        }
+        tokenizer.reset(line);
+        String UserName = tokenizer.field(0);
+        String UserID = tokenizer.field(1);
+        tokenizer.reset(reader.readLine());
+        ArrayList<String> likedMoviesID =  new ArrayList<>(tokenizer.count());
+        for (int i = 0; i < tokenizer.count(); i++) {
+            likedMoviesID.add(tokenizer.field(i, symbolTable));
+        }
+        return new User(UserName, UserID, likedMoviesID);
+    }
+
+    private interface RecordParser<T> {
+        T read(LineReader reader, CsvTokenizer tokenizer) throws IOException;
+    }
+
+    private <T> ArrayList<T> readAll(String filePath, boolean readAhead, RecordParser<T> parser){
+        ArrayList<T> records = new ArrayList<>();
+        try{
+            readRecords(filePath, readAhead, parser, records);
+        }
+        catch(IOException e){
+            e.printStackTrace();
+        }
+        return records;
+    }
+
+    // One file of a sharded input. A shard that cannot be read to its end throws instead of returning
+    // the records before the failure, which would go unnoticed once the shards are merged.
+    ArrayList<Movie> readMoviesShard(String filePathMovie, boolean lazy){
+        return readShard(filePathMovie, lazy ? this::readLazyMovie : this::readMovie);
+    }
+    ArrayList<User> readUserShard(String filePathUser){
+        return readShard(filePathUser, this::readUser);
+    }
+
+    private <T> ArrayList<T> readShard(String filePath, RecordParser<T> parser){
+        ArrayList<T> records = new ArrayList<>();
+        try{
+            readRecords(filePath, true, parser, records);
+        }
+        catch(IOException e){
+            throw new UncheckedIOException("Could not read shard " + filePath, e);
+        }
+        return records;
+    }
+
+    // Records read before a failure stay in the list
+    private <T> void readRecords(String filePath, boolean readAhead, RecordParser<T> parser, ArrayList<T> records) throws IOException{
+        try(LineReader reader = new LineReader(open(filePath, readAhead))){
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            T record;
+            while((record = parser.read(reader, tokenizer)) != null){
+                records.add(record);
+            }
+        }
+    }
+
+    // ".gz" files are inflated on the read-ahead thread, so decompression overlaps parsing
+    Reader open(String filePath, boolean readAhead) throws IOException{
+        if(isCompressed(filePath)){
+            FileInputStream file = new FileInputStream(filePath);
+            try{
+                return new InputStreamReader(new ReadAheadInputStream(new GZIPInputStream(file, 1 << 16)));
+            }
+            catch(IOException e){
+                file.close();
+                throw e;
+            }
+        }
+        if(!readAhead){
+            return new FileReader(filePath);
+        }
+        return new InputStreamReader(new ReadAheadInputStream(new FileInputStream(filePath)));
+    }
+
+    static boolean isCompressed(String filePath){
+        return filePath.endsWith(".gz");
+    }
+
+    private <T> Stream<T> stream(String filePath, RecordParser<T> parser){
+        LineReader reader;
+        try{
+            reader = new LineReader(open(filePath, false));
+        }
+        catch(IOException e){
+            e.printStackTrace();
+            return Stream.empty();
+        }
+        return StreamSupport.stream(new RecordSpliterator<>(reader, parser), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static class RecordSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final LineReader reader;
+        private final RecordParser<T> parser;
+        private final CsvTokenizer tokenizer = new CsvTokenizer();
+
+        RecordSpliterator(LineReader reader, RecordParser<T> parser) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.reader = reader;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                T record = parser.read(reader, tokenizer);
+                if (record == null) {
+                    return false;
+                }
+                action.accept(record);
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
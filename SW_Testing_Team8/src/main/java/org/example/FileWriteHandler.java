@@ -1,43 +1,190 @@
 package org.example;
 import org.Models.Movie;
 import org.Models.User;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 
 public class FileWriteHandler {
-    private final String filePath = Path.of(System.getProperty("user.dir"), "recommendations.txt").toString();
+    private String filePath = Path.of(System.getProperty("user.dir"), "recommendations.txt").toString();
     //String filePath = "E:\\GitHub\\SW-Testing-Project\\SW_Testing_Team8\\src\\main\\java\\org\\Outputs\\recommendations.txt";
+    private static final int bufferSize = 1 << 16;
     String content = "";
     ArrayList<User> users;
+    private boolean append;
+    private boolean compressed;
+    private int partitions = 1;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.ON_CLOSE;
     public  FileWriteHandler(ArrayList<User> users)
     {
+        // lines are produced while writing, so memory does not grow with the number of users
         this.users = users;
-        for(User u : users)
-        {
-            content += u.getName()+", "+u.getId()+"\n";
-            ArrayList<String> recMovies = u.getRecMovies();
-            if(!recMovies.isEmpty())
-            {
-                for(String rec : u.getRecMovies())
-                {
-                    content += rec +", ";
-                }
-                content = content.substring(0, content.length()-2);
-            }
-            content+="\n";
-        }
     }
     public FileWriteHandler(String error)
     {
         this.content = error;
     }
 
+    public ArrayList<User> getUsers()
+    {
+        return users;
+    }
+
+    public void setFilePath(String filePath)
+    {
+        this.filePath = filePath;
+    }
+
+    public String getFilePath()
+    {
+        return filePath;
+    }
+
+    // Adds to the end of an existing file instead of replacing it
+    public void setAppend(boolean append)
+    {
+        this.append = append;
+    }
+
+    // Gzip the output; ".gz" is added to the file name unless it already ends with it.
+    // Appending adds a new gzip member, which gzip readers treat as one continuous file.
+    public void setCompressed(boolean compressed)
+    {
+        this.compressed = compressed;
+    }
+
+    public String getOutputPath()
+    {
+        if (compressed && !filePath.endsWith(".gz")) return filePath + ".gz";
+        return filePath;
+    }
+
+    // The output is renamed into place only when complete; this decides what is forced to disk before
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy)
+    {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public FsyncPolicy getFsyncPolicy()
+    {
+        return fsyncPolicy;
+    }
+
+    // Splits the users into this many files by index range, written in parallel, plus a manifest.
+    // The partitions concatenated in order are the single-file output (gzip members concatenate too).
+    public void setPartitions(int partitions)
+    {
+        if (partitions <= 0)
+            throw new IllegalArgumentException("partitions must be positive");
+        this.partitions = partitions;
+    }
+
+    public int getPartitions()
+    {
+        return partitions;
+    }
+
+    // recommendations.txt.part-00000, or recommendations.txt.part-00000.gz when compressed
+    public String getPartitionPath(int partition)
+    {
+        return String.format("%s.part-%05d%s", basePath(), partition, compressed ? ".gz" : "");
+    }
+
+    // One line per partition: file name, records, bytes on disk, CRC32 of those bytes in hex
+    public String getManifestPath()
+    {
+        return basePath() + ".manifest";
+    }
+
+    private String basePath()
+    {
+        if (filePath.endsWith(".gz")) return filePath.substring(0, filePath.length() - 3);
+        return filePath;
+    }
+
+    // Writer on the output file, honouring append and compression; nothing replaces the file until commit()
+    OutputWriter open() throws IOException
+    {
+        return open(getOutputPath(), append, compressed, null);
+    }
+
+    // crc, when given, sees the bytes as they go to the disk
+    private OutputWriter open(String path, boolean append, boolean gzip, CRC32 crc) throws IOException
+    {
+        AtomicFileOutputStream file = new AtomicFileOutputStream(Path.of(path), append, fsyncPolicy);
+        file.setChecksum(crc);
+        try
+        {
+            if (!gzip) return new OutputWriter(file, null, file);
+            GZIPOutputStream compressor = new GZIPOutputStream(file, bufferSize);
+            return new OutputWriter(file, compressor, compressor);
+        }
+        catch (IOException ex)
+        {
+            file.close();
+            throw ex;
+        }
+    }
+
+    // Output for users: plain files are encoded straight into channel buffers, gzip goes through a writer
+    Output openUsers() throws IOException
+    {
+        return openUsers(getOutputPath(), append, compressed, null);
+    }
+
+    private Output openUsers(String path, boolean append, boolean gzip, CRC32 crc) throws IOException
+    {
+        if (gzip) return open(path, append, true, crc);
+        AtomicFileOutputStream file = new AtomicFileOutputStream(Path.of(path), append, fsyncPolicy);
+        file.setChecksum(crc);
+        return new EncodedOutput(file);
+    }
+
     public void write()
     {
-        try(FileWriter writer = new FileWriter(filePath)){
-            writer.write(content);
+        if (users != null && partitions > 1)
+        {
+            writePartitions();
+            return;
+        }
+        try{
+            if (users != null)
+            {
+                try (Output output = openUsers())
+                {
+                    for (User u : users)
+                    {
+                        output.add(u);
+                    }
+                    output.commit();
+                }
+            }
+            else
+            {
+                try (OutputWriter writer = open())
+                {
+                    writer.write(content);
+                    writer.commit();
+                }
+            }
             System.out.println("Done sucessfully");
         }
         catch(IOException ex)
@@ -45,4 +192,196 @@ public class FileWriteHandler {
             System.out.println(ex.getMessage());
         }
     }
+
+    // Partitions always replace earlier files; the manifest is written last, once every partition is complete
+    private void writePartitions()
+    {
+        int threads = Math.min(partitions, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<Partition>> written = new ArrayList<>();
+            for (int p = 0; p < partitions; p++)
+            {
+                int partition = p;
+                int from = (int) ((long) users.size() * p / partitions);
+                int to = (int) ((long) users.size() * (p + 1) / partitions);
+                written.add(pool.submit(() -> writePartition(partition, from, to)));
+            }
+            List<Partition> complete = new ArrayList<>();
+            for (Future<Partition> partition : written)
+            {
+                complete.add(partition.get());
+            }
+            deleteStalePartitions(complete);
+            try (OutputWriter manifest = open(getManifestPath(), false, false, null))
+            {
+                for (Partition partition : complete)
+                {
+                    manifest.write(partition.toString());
+                    manifest.write('\n');
+                }
+                manifest.commit();
+            }
+            System.out.println("Done sucessfully");
+        }
+        catch (ExecutionException ex)
+        {
+            System.out.println(ex.getCause().getMessage());
+        }
+        catch (IOException ex)
+        {
+            System.out.println(ex.getMessage());
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    // Part files of an earlier run with more partitions (or the other compression) would be taken for part of this one
+    private void deleteStalePartitions(List<Partition> complete) throws IOException
+    {
+        Path base = Path.of(basePath()).toAbsolutePath();
+        Pattern partName = Pattern.compile(Pattern.quote(base.getFileName().toString()) + "\\.part-\\d{5,}(\\.gz)?");
+        Set<String> current = new HashSet<>();
+        for (Partition partition : complete)
+        {
+            current.add(partition.name);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(base.getParent()))
+        {
+            for (Path file : files)
+            {
+                String name = file.getFileName().toString();
+                if (partName.matcher(name).matches() && !current.contains(name)) Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Partition writePartition(int partition, int from, int to) throws IOException
+    {
+        File file = new File(getPartitionPath(partition));
+        CRC32 crc = new CRC32();
+        try (Output output = openUsers(file.getPath(), false, compressed, crc))
+        {
+            for (int i = from; i < to; i++)
+            {
+                output.add(users.get(i));
+            }
+            output.commit();
+        }
+        return new Partition(file.getName(), to - from, file.length(), crc.getValue());
+    }
+
+    // A file being written; it replaces the previous one on commit(), closing without commit() abandons it
+    interface Output extends Closeable
+    {
+        void add(User user) throws IOException;
+
+        void commit() throws IOException;
+    }
+
+    static final class OutputWriter extends BufferedWriter implements Output
+    {
+        private final AtomicFileOutputStream file;
+        private final GZIPOutputStream compressor;
+
+        private OutputWriter(AtomicFileOutputStream file, GZIPOutputStream compressor, OutputStream out)
+        {
+            super(new OutputStreamWriter(out), bufferSize);
+            this.file = file;
+            this.compressor = compressor;
+        }
+
+        @Override
+        public void add(User user) throws IOException
+        {
+            writeUser(this, user);
+        }
+
+        // Flushes everything down to the file and renames it into place
+        @Override
+        public void commit() throws IOException
+        {
+            flush();
+            if (compressor != null) compressor.finish();
+            file.commit();
+        }
+    }
+
+    static final class EncodedOutput implements Output
+    {
+        private final AtomicFileOutputStream file;
+        private final RecommendationEncoder encoder;
+
+        private EncodedOutput(AtomicFileOutputStream file)
+        {
+            this.file = file;
+            this.encoder = new RecommendationEncoder(file);
+        }
+
+        @Override
+        public void add(User user) throws IOException
+        {
+            encoder.encode(user);
+        }
+
+        @Override
+        public void commit() throws IOException
+        {
+            encoder.flush();
+            file.commit();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            encoder.close();
+            file.close();
+        }
+    }
+
+    static class Partition
+    {
+        final String name;
+        final int records;
+        final long bytes;
+        final long crc;
+
+        Partition(String name, int records, long bytes, long crc)
+        {
+            this.name = name;
+            this.records = records;
+            this.bytes = bytes;
+            this.crc = crc;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s,%d,%d,%08x", name, records, bytes, crc);
+        }
+    }
+
+    // "name, id" then the recommended titles joined by ", " (empty line when there are none)
+    static void writeUser(Writer writer, User u) throws IOException
+    {
+        writer.write(String.valueOf(u.getName()));
+        writer.write(", ");
+        writer.write(String.valueOf(u.getId()));
+        writer.write('\n');
+        boolean first = true;
+        for (String rec : u.getRecMovies())
+        {
+            if (!first) writer.write(", ");
+            writer.write(String.valueOf(rec));
+            first = false;
+        }
+        writer.write('\n');
+    }
 }
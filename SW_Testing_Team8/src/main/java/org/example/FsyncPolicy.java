@@ -0,0 +1,50 @@
+package org.example;
+
+// When written output is forced to the disk: never (the OS decides), once before the file is renamed
+// into place, or additionally every N megabytes while writing, which bounds the dirty data at the end.
+public final class FsyncPolicy {
+    public static final FsyncPolicy NONE = new FsyncPolicy(-1);
+    public static final FsyncPolicy ON_CLOSE = new FsyncPolicy(0);
+
+    // bytes written between two forces, 0 only forces on close, negative never forces
+    private final long interval;
+
+    private FsyncPolicy(long interval) {
+        this.interval = interval;
+    }
+
+    public static FsyncPolicy everyMegabytes(int megabytes) {
+        if (megabytes <= 0)
+            throw new IllegalArgumentException("megabytes must be positive");
+        return new FsyncPolicy((long) megabytes << 20);
+    }
+
+    // "none", "close", or a number of megabytes such as "8" or "8mb"
+    public static FsyncPolicy parse(String value) {
+        String policy = value.trim().toLowerCase();
+        if (policy.equals("none")) return NONE;
+        if (policy.equals("close")) return ON_CLOSE;
+        if (policy.endsWith("mb")) policy = policy.substring(0, policy.length() - 2);
+        try {
+            return everyMegabytes(Integer.parseInt(policy));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown fsync policy: " + value);
+        }
+    }
+
+    public boolean syncsOnClose() {
+        return interval >= 0;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    @Override
+    public String toString() {
+        if (interval < 0) return "none";
+        if (interval == 0) return "close";
+        return (interval >> 20) + "mb";
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import org.Models.Movie;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public final class GenreDictionary {
+    private final ArrayList<Movie> movies;
+    private final HashMap<String, Integer> ordinals = new HashMap<>();
+    private final ArrayList<String> genres = new ArrayList<>();
+    private final int words;
+    // genre mask of catalog movie i is masks[i * words] .. masks[i * words + words - 1]
+    private final long[] masks;
+
+    public GenreDictionary(ArrayList<Movie> movies) {
+        this.movies = movies;
+        for (Movie m : movies) {
+            m.forEachGenre(genre -> {
+                if (!ordinals.containsKey(genre)) {
+                    ordinals.put(genre, genres.size());
+                    genres.add(genre);
+                }
+            });
+        }
+        words = Math.max(1, (genres.size() + 63) / 64);
+        masks = new long[movies.size() * words];
+        for (int i = 0; i < movies.size(); i++) {
+            System.arraycopy(mask(movies.get(i)), 0, masks, i * words, words);
+        }
+    }
+
+    public ArrayList<Movie> getMovies() {
+        return movies;
+    }
+
+    public int ordinal(String genre) {
+        return ordinals.getOrDefault(genre, -1);
+    }
+
+    public String genre(int ordinal) {
+        return genres.get(ordinal);
+    }
+
+    public int size() {
+        return genres.size();
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public long[] getMasks() {
+        return masks;
+    }
+
+    private long[] mask(Movie movie) {
+        long[] mask = new long[words];
+        movie.forEachGenre(genre -> {
+            int ordinal = ordinal(genre);
+            if (ordinal >= 0) {
+                mask[ordinal >>> 6] |= 1L << ordinal;
+            }
+        });
+        return mask;
+    }
+
+    // Genres missing from the dictionary are dropped, no catalog movie can match them anyway
+    public long[] mask(List<String> movieGenres) {
+        long[] mask = new long[words];
+        for (String genre : movieGenres) {
+            int ordinal = ordinal(genre);
+            if (ordinal >= 0) {
+                mask[ordinal >>> 6] |= 1L << ordinal;
+            }
+        }
+        return mask;
+    }
+}
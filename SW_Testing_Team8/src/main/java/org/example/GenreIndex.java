@@ -0,0 +1,77 @@
+package org.example;
+
+import org.Models.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class GenreIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final ArrayList<Movie> movies;
+    // genre -> positions in the catalog of every movie having that genre, ascending
+    private final HashMap<String, int[]> postings = new HashMap<>();
+
+    public GenreIndex(ArrayList<Movie> movies) {
+        this.movies = movies;
+        HashMap<String, ArrayList<Integer>> building = new HashMap<>();
+        for (int i = 0; i < movies.size(); i++) {
+            Integer position = i;
+            movies.get(i).forEachGenre(genre -> {
+                ArrayList<Integer> list = building.computeIfAbsent(genre, g -> new ArrayList<>());
+                // a movie listing the same genre twice is only posted once
+                if (list.isEmpty() || !list.get(list.size() - 1).equals(position)) {
+                    list.add(position);
+                }
+            });
+        }
+        for (String genre : building.keySet()) {
+            ArrayList<Integer> list = building.get(genre);
+            int[] positions = new int[list.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = list.get(i);
+            }
+            postings.put(genre, positions);
+        }
+    }
+
+    public ArrayList<Movie> getMovies() {
+        return movies;
+    }
+
+    public int[] getPostings(String genre) {
+        return postings.getOrDefault(genre, EMPTY);
+    }
+
+    public int genreCount() {
+        return postings.size();
+    }
+
+    // Catalog positions of every movie sharing at least one genre with the given movie, ascending
+    public int[] matching(Movie likedMovie) {
+        ArrayList<String> genres = likedMovie.getGenres();
+        if (genres.size() == 1) {
+            return getPostings(genres.get(0));
+        }
+        int total = 0;
+        for (String genre : genres) {
+            total += getPostings(genre).length;
+        }
+        int[] merged = new int[total];
+        int size = 0;
+        for (String genre : genres) {
+            int[] list = getPostings(genre);
+            System.arraycopy(list, 0, merged, size, list.length);
+            size += list.length;
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || merged[unique - 1] != merged[i]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return unique == merged.length ? merged : Arrays.copyOf(merged, unique);
+    }
+}
@@ -0,0 +1,349 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Keeps recommendations.txt up to date without rewriting it on every run. An index next to it holds, per user,
+// a fingerprint of the inputs the record was computed from (name, id, liked IDs and the whole catalog),
+// a fingerprint of the record itself and where the record sits in the file.
+// Only users whose inputs changed are recommended again. Records that really changed are overwritten in
+// place when they keep their length and the users keep their order (new users are appended); otherwise the
+// file is rewritten, copying unchanged records from the previous file instead of recomputing them.
+public class IncrementalOutput {
+    private static final int MAGIC = 0x4D524958;
+    private static final int VERSION = 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final FileWriteHandler output;
+    private final ArrayList<Movie> movies;
+    private final RecommendationEngine engine;
+    private final Path indexPath;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int recomputed;
+    private int rewritten;
+    private String mode;
+
+    public IncrementalOutput(FileWriteHandler output, ArrayList<Movie> movies, RecommendationEngine engine,
+                             Path indexPath) {
+        this.output = output;
+        this.movies = movies;
+        this.engine = engine;
+        this.indexPath = indexPath;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getRecomputed() {
+        return recomputed;
+    }
+
+    public int getRewritten() {
+        return rewritten;
+    }
+
+    // "unchanged", "in place" or "full"
+    public String getMode() {
+        return mode;
+    }
+
+    public void run() throws IOException {
+        ArrayList<User> users = output.getUsers();
+        Path outputPath = Path.of(output.getFilePath());
+        long catalog = catalogFingerprint(movies);
+        Index previous = Index.load(indexPath);
+        if (previous != null && !previous.matches(outputPath)) previous = null;
+
+        HashMap<String, Integer> previousById = new HashMap<>();
+        if (previous != null) {
+            for (int i = 0; i < previous.ids.length; i++) {
+                previousById.put(previous.ids[i], i);
+            }
+        }
+
+        Index next = new Index(catalog, users.size());
+        // position in the previous index of a record that can be kept byte for byte, -1 when it has to be written
+        int[] kept = new int[users.size()];
+        ArrayList<User> changed = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            next.ids[i] = user.getId();
+            next.inputs[i] = inputFingerprint(user);
+            Integer old = previousById.get(user.getId());
+            kept[i] = old != null && previous.catalog == catalog && previous.inputs[old] == next.inputs[i] ? old : -1;
+            if (kept[i] < 0) changed.add(user);
+        }
+        engine.recommendAll(changed, movies, threads);
+        recomputed = changed.size();
+
+        // a recomputed user whose record comes out the same is still kept
+        for (int i = 0; i < users.size(); i++) {
+            if (kept[i] >= 0) {
+                next.records[i] = previous.records[kept[i]];
+                continue;
+            }
+            next.records[i] = recordFingerprint(users.get(i));
+            Integer old = previousById.get(users.get(i).getId());
+            if (old != null && previous.records[old] == next.records[i]) kept[i] = old;
+        }
+
+        if (previous != null && inOrder(previous, next) && writeInPlace(outputPath, previous, next, kept, users)) {
+            return;
+        }
+        writeFull(outputPath, previous, next, kept, users);
+    }
+
+    // The previous users are still the first ones, in the same order
+    private static boolean inOrder(Index previous, Index next) {
+        if (next.ids.length < previous.ids.length) return false;
+        for (int i = 0; i < previous.ids.length; i++) {
+            if (!previous.ids[i].equals(next.ids[i])) return false;
+        }
+        return true;
+    }
+
+    // false, without touching anything, when a changed record would not fit where the old one is
+    private boolean writeInPlace(Path outputPath, Index previous, Index next, int[] kept, ArrayList<User> users)
+            throws IOException {
+        ArrayList<Integer> positions = new ArrayList<>();
+        ArrayList<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < next.ids.length; i++) {
+            if (i < previous.ids.length) {
+                next.offsets[i] = previous.offsets[i];
+                next.lengths[i] = previous.lengths[i];
+            }
+            if (kept[i] >= 0) continue;
+            byte[] record = encode(users.get(i));
+            if (i < previous.ids.length && record.length != previous.lengths[i]) return false;
+            positions.add(i);
+            records.add(record);
+        }
+        long end = previous.outputSize;
+        for (int r = 0; r < positions.size(); r++) {
+            int i = positions.get(r);
+            if (i >= previous.ids.length) {
+                next.offsets[i] = end;
+                next.lengths[i] = records.get(r).length;
+                end += records.get(r).length;
+            }
+        }
+        rewritten = positions.size();
+        if (positions.isEmpty() && previous.catalog == next.catalog && previous.ids.length == next.ids.length
+                && Arrays.equals(previous.inputs, next.inputs)) {
+            mode = "unchanged";
+            report();
+            return true;
+        }
+
+        // the file stops matching the old index with the first write; without an index the next run starts over
+        Files.deleteIfExists(indexPath);
+        try (FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.WRITE)) {
+            for (int r = 0; r < positions.size(); r++) {
+                ByteBuffer record = ByteBuffer.wrap(records.get(r));
+                long offset = next.offsets[positions.get(r)];
+                while (record.hasRemaining()) {
+                    offset += channel.write(record, offset);
+                }
+            }
+            if (output.getFsyncPolicy().syncsOnClose()) channel.force(false);
+        }
+        next.setOutput(outputPath, end);
+        next.save(indexPath);
+        mode = "in place";
+        report();
+        return true;
+    }
+
+    private void writeFull(Path outputPath, Index previous, Index next, int[] kept, ArrayList<User> users)
+            throws IOException {
+        rewritten = 0;
+        FileChannel old = previous != null ? FileChannel.open(outputPath, StandardOpenOption.READ) : null;
+        try (AtomicFileOutputStream file = new AtomicFileOutputStream(outputPath, false, output.getFsyncPolicy());
+             RecommendationEncoder encoder = new RecommendationEncoder(file)) {
+            ByteBuffer copy = ByteBuffer.allocate(1 << 12);
+            for (int i = 0; i < users.size(); i++) {
+                next.offsets[i] = encoder.getEncoded();
+                if (kept[i] >= 0) {
+                    int length = previous.lengths[kept[i]];
+                    if (copy.capacity() < length) copy = ByteBuffer.allocate(Math.max(length, copy.capacity() * 2));
+                    copy.clear().limit(length);
+                    long offset = previous.offsets[kept[i]];
+                    while (copy.hasRemaining()) {
+                        if (old.read(copy, offset + copy.position()) < 0)
+                            throw new IOException("Previous output ended early: " + outputPath);
+                    }
+                    encoder.encodeRaw(copy.flip());
+                }
+                else {
+                    encoder.encode(users.get(i));
+                    rewritten++;
+                }
+                next.lengths[i] = (int) (encoder.getEncoded() - next.offsets[i]);
+            }
+            encoder.flush();
+            file.commit();
+            next.setOutput(outputPath, encoder.getEncoded());
+        }
+        finally {
+            if (old != null) old.close();
+        }
+        next.save(indexPath);
+        mode = "full";
+        report();
+    }
+
+    private void report() {
+        System.out.println("Incremental output: " + recomputed + " users recomputed, " + rewritten
+                + " records written (" + mode + ")");
+    }
+
+    // Same bytes the encoder writes
+    private static byte[] encode(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes)) {
+            FileWriteHandler.writeUser(writer, user);
+        }
+        return bytes.toByteArray();
+    }
+
+    static long catalogFingerprint(ArrayList<Movie> movies) {
+        long[] hash = { FNV_OFFSET };
+        for (Movie movie : movies) {
+            hash[0] = fingerprint(hash[0], movie.getTitle());
+            hash[0] = fingerprint(hash[0], movie.getMovieID());
+            movie.forEachGenre(genre -> hash[0] = fingerprint(hash[0], genre));
+            hash[0] = fingerprint(hash[0], "\n");
+        }
+        return hash[0];
+    }
+
+    static long inputFingerprint(User user) {
+        long hash = fingerprint(fingerprint(FNV_OFFSET, user.getName()), user.getId());
+        for (String liked : user.getLikedMoviesId()) {
+            hash = fingerprint(hash, liked);
+        }
+        return hash;
+    }
+
+    static long recordFingerprint(User user) {
+        long hash = fingerprint(fingerprint(FNV_OFFSET, user.getName()), user.getId());
+        for (String title : user.getRecMovies()) {
+            hash = fingerprint(hash, title);
+        }
+        return hash;
+    }
+
+    // FNV-1a over the characters, with a terminator so ("ab", "c") and ("a", "bc") differ
+    private static long fingerprint(long hash, String value) {
+        if (value == null) value = "null";
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    static class Index {
+        final long catalog;
+        final String[] ids;
+        final long[] inputs;
+        final long[] records;
+        final long[] offsets;
+        final int[] lengths;
+        long outputSize;
+        long outputModified;
+
+        Index(long catalog, int users) {
+            this.catalog = catalog;
+            this.ids = new String[users];
+            this.inputs = new long[users];
+            this.records = new long[users];
+            this.offsets = new long[users];
+            this.lengths = new int[users];
+        }
+
+        void setOutput(Path outputPath, long size) throws IOException {
+            outputSize = size;
+            outputModified = Files.getLastModifiedTime(outputPath).toMillis();
+        }
+
+        // The output is still the file this index describes, nobody else wrote it since
+        boolean matches(Path outputPath) {
+            try {
+                return Files.size(outputPath) == outputSize
+                        && Files.getLastModifiedTime(outputPath).toMillis() == outputModified;
+            }
+            catch (IOException e) {
+                return false;
+            }
+        }
+
+        static Index load(Path indexPath) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                    throw new IOException("Not an incremental output index");
+                long catalog = in.readLong();
+                long outputSize = in.readLong();
+                long outputModified = in.readLong();
+                Index index = new Index(catalog, in.readInt());
+                index.outputSize = outputSize;
+                index.outputModified = outputModified;
+                for (int i = 0; i < index.ids.length; i++) {
+                    index.ids[i] = in.readUTF();
+                    index.inputs[i] = in.readLong();
+                    index.records[i] = in.readLong();
+                    index.offsets[i] = in.readLong();
+                    index.lengths[i] = in.readInt();
+                }
+                return index;
+            }
+            catch (NoSuchFileException e) {
+                return null;
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+
+        void save(Path indexPath) throws IOException {
+            try (AtomicFileOutputStream file = new AtomicFileOutputStream(indexPath, false, FsyncPolicy.ON_CLOSE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(catalog);
+                out.writeLong(outputSize);
+                out.writeLong(outputModified);
+                out.writeInt(ids.length);
+                for (int i = 0; i < ids.length; i++) {
+                    out.writeUTF(ids[i]);
+                    out.writeLong(inputs[i]);
+                    out.writeLong(records[i]);
+                    out.writeLong(offsets[i]);
+                    out.writeInt(lengths[i]);
+                }
+                out.flush();
+                file.commit();
+            }
+        }
+    }
+}
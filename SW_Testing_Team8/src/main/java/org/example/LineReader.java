@@ -0,0 +1,63 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+public class LineReader implements Closeable {
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    // last line ended with '\r', a '\n' right after it belongs to the same line break
+    private boolean skipLineFeed;
+    private final StringBuilder line = new StringBuilder();
+
+    public LineReader(Reader reader) {
+        this(reader, 8192);
+    }
+
+    LineReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    // Same line breaks as BufferedReader.readLine, but the returned builder is reused by the next call
+    public StringBuilder readLine() throws IOException {
+        line.setLength(0);
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(0, reader.read(buffer, 0, buffer.length));
+                position = 0;
+                if (limit == 0)
+                    return read ? line : null;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '\n' || c == '\r') {
+                    line.append(buffer, start, position - start);
+                    position++;
+                    skipLineFeed = c == '\r';
+                    return line;
+                }
+                position++;
+            }
+            line.append(buffer, start, position - start);
+            read = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
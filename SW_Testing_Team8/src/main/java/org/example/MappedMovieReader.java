@@ -0,0 +1,122 @@
+package org.example;
+
+import org.Models.Movie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+public class MappedMovieReader {
+    // a single mapping is limited to 2 GB, larger catalogs are read through consecutive windows
+    private static final int defaultWindowSize = 1 << 28;
+
+    private final int windowSize;
+    private final SymbolTable symbolTable;
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    // set by findLineEnd: end of the line's content and start of the following line
+    private int lineEnd;
+    private int nextLine;
+
+    public MappedMovieReader() {
+        this(new SymbolTable());
+    }
+
+    public MappedMovieReader(SymbolTable symbolTable) {
+        this(defaultWindowSize, symbolTable);
+    }
+
+    MappedMovieReader(int windowSize) {
+        this(windowSize, new SymbolTable());
+    }
+
+    MappedMovieReader(int windowSize, SymbolTable symbolTable) {
+        this.windowSize = windowSize;
+        this.symbolTable = symbolTable;
+    }
+
+    public ArrayList<Movie> readMovies(String filePathMovie) {
+        ArrayList<Movie> movies = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Path.of(filePathMovie), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            while (windowStart < size) {
+                int length = (int) Math.min(windowSize, size - windowStart);
+                boolean last = windowStart + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                int consumed = parseWindow(window, length, last, windowStart, movies);
+                if (consumed == 0)
+                    throw new IOException("Movie record at byte " + windowStart + " does not fit in the mapping window");
+                windowStart += consumed;
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        return movies;
+    }
+
+    // Parses every complete two-line record and returns where the first incomplete one starts
+    private int parseWindow(ByteBuffer window, int limit, boolean last, long windowStart, ArrayList<Movie> movies)
+            throws IOException {
+        int position = 0;
+        while (position < limit) {
+            if (!findLineEnd(window, position, limit, last))
+                return position;
+            int titleStart = position;
+            int titleEnd = lineEnd;
+            int genreStart = nextLine;
+            if (genreStart == limit && last)
+                throw new IOException("Movie record at byte " + (windowStart + position) + " has no genre line");
+            if (!findLineEnd(window, genreStart, limit, last))
+                return position;
+
+            tokenizer.reset(window, titleStart, titleEnd);
+            if (tokenizer.count() < 2)
+                throw new IOException("Movie record at byte " + (windowStart + position) + " has no movie id");
+            String title = tokenizer.field(0);
+            String movieID = tokenizer.field(1, symbolTable);
+
+            tokenizer.reset(window, genreStart, lineEnd);
+            ArrayList<String> genres = new ArrayList<>(tokenizer.count());
+            for (int i = 0; i < tokenizer.count(); i++) {
+                genres.add(tokenizer.field(i, symbolTable));
+            }
+            movies.add(new Movie(title, movieID, genres));
+            position = nextLine;
+        }
+        return position;
+    }
+
+    private boolean findLineEnd(ByteBuffer window, int from, int limit, boolean last) {
+        for (int i = from; i < limit; i++) {
+            byte b = window.get(i);
+            if (b == '\n') {
+                lineEnd = i;
+                nextLine = i + 1;
+                return true;
+            }
+            if (b == '\r') {
+                if (i + 1 < limit) {
+                    lineEnd = i;
+                    nextLine = window.get(i + 1) == '\n' ? i + 2 : i + 1;
+                    return true;
+                }
+                // a "\r\n" may be split across windows
+                if (!last)
+                    return false;
+                lineEnd = i;
+                nextLine = limit;
+                return true;
+            }
+        }
+        if (!last)
+            return false;
+        lineEnd = limit;
+        nextLine = limit;
+        return true;
+    }
+}
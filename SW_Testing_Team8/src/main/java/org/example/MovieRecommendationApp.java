@@ -1,8 +1,11 @@
 package org.example;
 
 import org.Models.Movie;
+import org.Models.MovieIndex;
 import org.Models.User;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Scanner;
 
@@ -24,101 +27,225 @@ public class MovieRecommendationApp {
         FileHandler fileHandler = new FileHandler();
         MovieValidator movieValidator = new MovieValidator();
         UserValidator userValidator = new UserValidator();
+        int threads = Integer.getInteger("recommendation.threads", Runtime.getRuntime().availableProcessors());
 
-        // Read movies from file
-        ArrayList<Movie> movies = fileHandler.readMovies(moviesFilePath);
+        // Follow mode keeps answering users appended to users.txt until the process is stopped
+        if (Boolean.getBoolean("recommendation.follow")) {
+            follow(moviesFilePath, usersFilePath, fileHandler, movieValidator, threads);
+            return;
+        }
+
+        // Long runs can record checkpoints and pick up after the last one when restarted.
+        // Checkpoints locate users by byte offset, so both inputs must be single plain files.
+        String checkpointPath = System.getProperty("recommendation.checkpoint");
+        if (checkpointPath != null) {
+            if (ShardedInput.isSharded(moviesFilePath) || ShardedInput.isSharded(usersFilePath)
+                    || FileHandler.isCompressed(usersFilePath)) {
+                System.out.println("Checkpoints need single uncompressed input files, running without them.");
+            } else {
+                CheckpointedRun run = new CheckpointedRun(moviesFilePath, usersFilePath, checkpointPath);
+                run.setThreads(threads);
+                run.setCompressed(Boolean.getBoolean("recommendation.compress"));
+                run.setCheckpointEvery(Integer.getInteger("recommendation.checkpoint.every", 50000));
+                run.run();
+                System.out.println("\nProcess completed! Check Output.txt for results.");
+                return;
+            }
+        }
 
-        // Validate all movies
-        boolean hasError = false;
-        String firstError = null;
+        // Either input may be a directory or glob of shards, merged in file name order
+        ShardedInput shardedInput = new ShardedInput(fileHandler);
+        shardedInput.setLazyGenres(Boolean.getBoolean("recommendation.lazyGenres"));
 
-        for (Movie movie : movies) {
-            // Validate movie title
-            if (!movieValidator.validateMovieTitle(movie.getTitle())) {
-                hasError = true;
-                firstError = movieValidator.getExceptionHandler().getErrorLog().get(0);
-                break;
+        // A compiled catalog that is newer than both inputs skips parsing and validation.
+        // Its freshness check looks at one file per input, so sharded inputs are always parsed.
+        String catalogPath = System.getProperty("recommendation.catalog");
+        if (ShardedInput.isSharded(moviesFilePath) || ShardedInput.isSharded(usersFilePath)) {
+            catalogPath = null;
+        }
+        BinaryCatalog catalog = catalogPath == null ? null
+                : BinaryCatalog.loadIfFresh(catalogPath, moviesFilePath, usersFilePath);
+        // taken before parsing, an input edited while it is read leaves the new catalog stale
+        BinaryCatalog.Sources sources = catalogPath == null || catalog != null ? null
+                : BinaryCatalog.Sources.of(moviesFilePath, usersFilePath);
+
+        ArrayList<Movie> movies;
+        ArrayList<User> users;
+        if (catalog != null) {
+            movies = catalog.getMovies();
+            users = catalog.getUsers();
+        } else {
+            // Fused mode validates every record while it is parsed, stopping at the first error
+            boolean fused = Boolean.getBoolean("recommendation.fused")
+                    && !ShardedInput.isSharded(moviesFilePath) && !ShardedInput.isSharded(usersFilePath);
+
+            String firstError;
+            if (fused) {
+                // Read and validate all movies
+                movies = fileHandler.readMoviesValidated(moviesFilePath, movieValidator);
+                firstError = movies == null ? movieValidator.getExceptionHandler().getErrorLog().get(0) : null;
+
+                // Read and validate all users, linking their liked movies
+                users = null;
+                if (firstError == null) {
+                    users = fileHandler.readUsersValidated(usersFilePath, userValidator, new MovieIndex(movies));
+                    firstError = users == null ? userValidator.getExceptionHandler().getErrorLog().get(0) : null;
+                }
+            } else {
+                // Users are read while the movies are read and validated
+                ConcurrentLoader loader = new ConcurrentLoader(shardedInput);
+                firstError = loader.load(moviesFilePath, usersFilePath, movieValidator, userValidator);
+                movies = loader.getMovies();
+                users = loader.getUsers();
             }
 
-            // Validate movie ID
-            if (!movieValidator.validateMovieIdFull(movie.getMovieID())) {
-                hasError = true;
-                firstError = movieValidator.getExceptionHandler().getErrorLog().get(0);
-                break;
+            // If there's an error in movies or users, write it and exit
+            if (firstError != null) {
+                FileWriteHandler errorWriter = new FileWriteHandler(firstError);
+                // the error replaces the output the recommendations would have gone to
+                errorWriter.setCompressed(Boolean.getBoolean("recommendation.compress"));
+                errorWriter.write();
+                return;
             }
 
-            // Add current movie ID to the list for uniqueness checking **after successful validation**
-            movieValidator.getId_list().add(movie.getMovieID());
+            System.out.println(fileHandler.getSymbolTable().report());
 
-            // Validate all genres
-            for (String genre : movie.getGenres()) {
-                if (!movieValidator.validateMovieGenre(genre)) {
-                    hasError = true;
-                    firstError = movieValidator.getExceptionHandler().getErrorLog().get(0);
-                    break;
-                }
+            if (catalogPath != null) {
+                BinaryCatalog.compile(catalogPath, movies, users, sources);
             }
+        }
 
-            if (hasError) break;
+        // Generate recommendations for all users, each one is written out in input order as soon as it is done
+        RecommendationEngine recommendationEngine = new RecommendationEngine(new GenreIndex(movies));
+        FileWriteHandler outputWriter = new FileWriteHandler(users);
+        outputWriter.setCompressed(Boolean.getBoolean("recommendation.compress"));
+        outputWriter.setFsyncPolicy(FsyncPolicy.parse(System.getProperty("recommendation.fsync", "close")));
+        int partitions = Integer.getInteger("recommendation.partitions", 1);
+        String incrementalIndex = System.getProperty("recommendation.incremental");
+        if (incrementalIndex != null && !Boolean.getBoolean("recommendation.compress") && partitions <= 1) {
+            // only users whose inputs changed are recommended, only records that changed are written
+            IncrementalOutput incremental = new IncrementalOutput(outputWriter, movies, recommendationEngine,
+                    Path.of(incrementalIndex));
+            incremental.setThreads(threads);
+            try {
+                incremental.run();
+            }
+            catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        else if (partitions > 1) {
+            // partitions are written in parallel once every user is recommended
+            recommendationEngine.recommendAll(users, movies, threads);
+            outputWriter.setPartitions(partitions);
+            outputWriter.write();
+        }
+        else {
+            try (AsyncRecommendationWriter writer = new AsyncRecommendationWriter(outputWriter)) {
+                recommendationEngine.recommendAll(users, movies, threads, writer);
+            }
+            catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
         }
 
-        // If there's an error in movies, write it and exit
-        if (hasError) {
+        System.out.println("\nProcess completed! Check Output.txt for results.");
+    }
+
+    static void follow(String moviesFilePath, String usersFilePath, FileHandler fileHandler,
+                       MovieValidator movieValidator, int threads) {
+        // appends are located by byte offset, which only works on a single plain text file
+        if (FileHandler.isCompressed(usersFilePath) || ShardedInput.isSharded(usersFilePath)) {
+            System.out.println("Follow mode needs a single uncompressed users file: " + usersFilePath);
+            return;
+        }
+        ArrayList<Movie> movies = new ShardedInput(fileHandler).readMovies(moviesFilePath);
+        String firstError = validateMovies(movies, movieValidator);
+        if (firstError != null) {
             FileWriteHandler errorWriter = new FileWriteHandler(firstError);
+            errorWriter.setCompressed(Boolean.getBoolean("recommendation.compress"));
             errorWriter.write();
             return;
         }
 
-        // Read users from file
-        ArrayList<User> users = fileHandler.readUser(usersFilePath);
+        UserFileFollower follower = new UserFileFollower(usersFilePath, movies,
+                new RecommendationEngine(new GenreIndex(movies)));
+        follower.setThreads(threads);
+        follower.setSymbolTable(fileHandler.getSymbolTable());
+        follower.setCompressed(Boolean.getBoolean("recommendation.compress"));
+        System.out.println("\nFollowing " + usersFilePath + " for new users, stop the process to end.");
+        try {
+            follower.follow();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        // Validate all users and link liked movies
-        for (User user : users) {
-            // Validate user name
-            if (!userValidator.validateUserName(user.getName())) {
-                hasError = true;
-                firstError = userValidator.getExceptionHandler().getErrorLog().get(0);
-                break;
-            }
+    // First validation error among the movies, or null when all of them are valid
+    static String validateMovies(ArrayList<Movie> movies, MovieValidator movieValidator) {
+        for (Movie movie : movies) {
+            String error = validateMovie(movie, movieValidator);
+            if (error != null) return error;
+        }
+        return null;
+    }
 
-            // Validate user ID
-            if (!userValidator.validateUserId(user.getId())) {
-                hasError = true;
-                firstError = userValidator.getExceptionHandler().getErrorLog().get(0);
-                break;
-            }
+    static String validateMovie(Movie movie, MovieValidator movieValidator) {
+        // Validate movie title
+        if (!movieValidator.validateMovieTitle(movie.getTitle())) {
+            return movieValidator.getExceptionHandler().getErrorLog().get(0);
+        }
 
-            // Link liked movies using the setLikedMovies method from User class
-            boolean hasLikedMovies = user.setLikedMovies(movies);
+        // Validate movie ID
+        if (!movieValidator.validateMovieIdFull(movie.getMovieID())) {
+            return movieValidator.getExceptionHandler().getErrorLog().get(0);
+        }
 
-            // Validate that user has liked movies
-            userValidator.validateLikedMovieList(hasLikedMovies);
-            if (!userValidator.getExceptionHandler().getErrorLog().isEmpty()) {
-                hasError = true;
-                firstError = userValidator.getExceptionHandler().getErrorLog().get(0);
-                break;
-            }
+        // Add current movie ID to the list for uniqueness checking **after successful validation**
+        movieValidator.getId_list().add(movie.getMovieID());
+
+        // Validate all genres, a lazy movie is checked without building its genre list
+        boolean[] genresValid = {true};
+        movie.forEachGenre(genre -> {
+            if (genresValid[0]) genresValid[0] = movieValidator.validateMovieGenre(genre);
+        });
+        if (!genresValid[0]) {
+            return movieValidator.getExceptionHandler().getErrorLog().get(0);
+        }
+        return null;
+    }
 
-            if (hasError) break;
+    // First validation error among the users, or null when all of them are valid.
+    // Valid users get their liked movies linked.
+    static String validateUsers(ArrayList<User> users, UserValidator userValidator, MovieIndex movieIndex) {
+        for (User user : users) {
+            String error = validateUser(user, userValidator, movieIndex);
+            if (error != null) return error;
         }
+        return null;
+    }
 
-        // If there's an error in users, write it and exit
-        if (hasError) {
-            FileWriteHandler errorWriter = new FileWriteHandler(firstError);
-            errorWriter.write();
-            return;
+    static String validateUser(User user, UserValidator userValidator, MovieIndex movieIndex) {
+        // Validate user name
+        if (!userValidator.validateUserName(user.getName())) {
+            return userValidator.getExceptionHandler().getErrorLog().get(0);
         }
 
-        // Generate recommendations for all users
-        RecommendationEngine recommendationEngine = new RecommendationEngine();
-        for (User user : users) {
-            recommendationEngine.GetRecommendations(user, movies);
+        // Validate user ID
+        if (!userValidator.validateUserId(user.getId())) {
+            return userValidator.getExceptionHandler().getErrorLog().get(0);
         }
 
-        // Write recommendations to output file
-        FileWriteHandler outputWriter = new FileWriteHandler(users);
-        outputWriter.write();
+        // Link liked movies through the ID index (same result as User.setLikedMovies)
+        boolean hasLikedMovies = user.linkLikedMovies(movieIndex);
 
-        System.out.println("\nProcess completed! Check Output.txt for results.");
+        // Validate that user has liked movies
+        userValidator.validateLikedMovieList(hasLikedMovies);
+        if (!userValidator.getExceptionHandler().getErrorLog().isEmpty()) {
+            return userValidator.getExceptionHandler().getErrorLog().get(0);
+        }
+        return null;
     }
 }
@@ -2,7 +2,9 @@ package org.example;
 
 import org.Models.Movie;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public class MovieValidator {
@@ -15,9 +17,11 @@ public class MovieValidator {
 
     public MovieValidator() {
         exceptionHandler = new ExceptionHandler();
-        id_list = new ArrayList<>();
+        id_list = new IdList(new ArrayList<>());
     }
 
+    // The list is used as given, IDs the caller adds later still count; only the validator's own list
+    // keeps the suffix registry, a list set here is scanned
     public void setId_list(List<String> id_list) {
         this.id_list = id_list;
     }
@@ -29,27 +33,32 @@ public class MovieValidator {
     }
 
     public boolean validateMovieTitle(String title) {
-        char[] charArray = title.toCharArray();
+        return validateMovieTitle(title, 0, title.length());
+    }
+
+    // Same rules on a field still inside the line it was read from, the String is only built for the error
+    public boolean validateMovieTitle(CharSequence text, int from, int to) {
         boolean result = true;
 
         try {
 
-            if (charArray.length < minTitleLength)
-                exceptionHandler.throwValidationError("ERROR: Movie Title " + title + " is wrong");
+            if (to - from < minTitleLength)
+                exceptionHandler.throwValidationError("ERROR: Movie Title " + text.subSequence(from, to) + " is wrong");
 
-            for (int i = 0; i < charArray.length; i++) {
-                if (Character.isDigit(charArray[i]) || charArray[i] == ' ')
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                if (Character.isDigit(c) || c == ' ')
                     result = true;
-                else if (Character.isAlphabetic(charArray[i])) {
-                    if (i == 0) {
-                        if (!Character.isUpperCase(charArray[i]))
-                            exceptionHandler.throwValidationError("ERROR: Movie Title " + title + " is wrong");
-                    } else if (charArray[i - 1] == ' ') {
-                        if (!Character.isUpperCase(charArray[i]))
-                            exceptionHandler.throwValidationError("ERROR: Movie Title " + title + " is wrong");
+                else if (Character.isAlphabetic(c)) {
+                    if (i == from) {
+                        if (!Character.isUpperCase(c))
+                            exceptionHandler.throwValidationError("ERROR: Movie Title " + text.subSequence(from, to) + " is wrong");
+                    } else if (text.charAt(i - 1) == ' ') {
+                        if (!Character.isUpperCase(c))
+                            exceptionHandler.throwValidationError("ERROR: Movie Title " + text.subSequence(from, to) + " is wrong");
                     }
                 } else {
-                    exceptionHandler.throwValidationError("ERROR: Movie Title " + title + " is wrong");
+                    exceptionHandler.throwValidationError("ERROR: Movie Title " + text.subSequence(from, to) + " is wrong");
                 }
             }
         } catch (IllegalArgumentException e) {
@@ -83,7 +92,6 @@ public class MovieValidator {
         char[] charArray = id.toCharArray();
         boolean result = true;
         int digitsExist = 0;
-        String id_digits = id.substring(id.length() - 3);
 
         try {
             for (int i = charArray.length - 3; i < charArray.length; i++) {
@@ -91,10 +99,18 @@ public class MovieValidator {
                     exceptionHandler.throwValidationError("ERROR: Movie Id numbers " + id + " are wrong");
             }
 
-            for (String checking_id_digits : id_list) {
-                checking_id_digits = checking_id_digits.substring(checking_id_digits.length() - 3);
-                if (checking_id_digits.equals(id_digits))
+            int suffix = suffixOf(id);
+            if (suffix >= 0 && id_list instanceof IdList known) {
+                if (known.suffixes.get(suffix))
                     digitsExist++;
+            } else {
+                // non-ASCII digits never equal an ASCII suffix, so in the registry only these need the scan
+                String id_digits = id.substring(id.length() - 3);
+                for (String checking_id_digits : id_list) {
+                    checking_id_digits = checking_id_digits.substring(checking_id_digits.length() - 3);
+                    if (checking_id_digits.equals(id_digits))
+                        digitsExist++;
+                }
             }
 
             if (digitsExist >= 1)
@@ -120,17 +136,21 @@ public class MovieValidator {
     }
     public boolean validateMovieGenre(String genre)
     {
-        char[] charArray = genre.toCharArray();
+        return validateMovieGenre(genre, 0, genre.length());
+    }
+
+    public boolean validateMovieGenre(CharSequence text, int from, int to)
+    {
         boolean result=true;
 
         try {
 
-            if(genre.length()<minGenreLength)
-                exceptionHandler.throwValidationError("ERROR: Movie Genre " + genre + " is wrong");
+            if(to - from<minGenreLength)
+                exceptionHandler.throwValidationError("ERROR: Movie Genre " + text.subSequence(from, to) + " is wrong");
 
-            for (char c : charArray) {
-                if (!Character.isAlphabetic(c))
-                    exceptionHandler.throwValidationError("ERROR: Movie Genre " + genre + " is wrong");
+            for (int i = from; i < to; i++) {
+                if (!Character.isAlphabetic(text.charAt(i)))
+                    exceptionHandler.throwValidationError("ERROR: Movie Genre " + text.subSequence(from, to) + " is wrong");
             }
         }
         catch (IllegalArgumentException e)
@@ -141,4 +161,89 @@ public class MovieValidator {
         }
         return result;
     }
+
+    // Value of the last three characters when they are ASCII digits, otherwise -1
+    private static int suffixOf(String id) {
+        int length = id.length();
+        if (length < 3)
+            return -1;
+        int value = 0;
+        for (int i = length - 3; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Keeps a 1000-bit registry of the ASCII digit suffixes in the list, updated on every change,
+    // so checkUnique3Digits is a bit test instead of a scan of all previous ids
+    private static class IdList extends AbstractList<String> {
+        private final List<String> ids;
+        private final BitSet suffixes = new BitSet(1000);
+
+        IdList(List<String> ids) {
+            this.ids = ids;
+            for (String id : ids)
+                register(id);
+        }
+
+        private void register(String id) {
+            int suffix = id == null ? -1 : suffixOf(id);
+            if (suffix >= 0)
+                suffixes.set(suffix);
+        }
+
+        private void unregister(String id) {
+            int suffix = id == null ? -1 : suffixOf(id);
+            if (suffix < 0)
+                return;
+            for (String other : ids) {
+                if (other != null && suffixOf(other) == suffix)
+                    return;
+            }
+            suffixes.clear(suffix);
+        }
+
+        @Override
+        public String get(int index) {
+            return ids.get(index);
+        }
+
+        @Override
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public void add(int index, String id) {
+            ids.add(index, id);
+            modCount++;
+            register(id);
+        }
+
+        @Override
+        public String set(int index, String id) {
+            String previous = ids.set(index, id);
+            unregister(previous);
+            register(id);
+            return previous;
+        }
+
+        @Override
+        public String remove(int index) {
+            String previous = ids.remove(index);
+            modCount++;
+            unregister(previous);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            ids.clear();
+            modCount++;
+            suffixes.clear();
+        }
+    }
 }
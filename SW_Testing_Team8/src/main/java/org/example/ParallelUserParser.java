@@ -0,0 +1,202 @@
+package org.example;
+
+import org.Models.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ParallelUserParser {
+    private static final long minChunkSize = 1 << 20;
+    private static final long maxChunkSize = 1 << 28;
+
+    private final FileHandler fileHandler;
+    private final int threads;
+    private final long chunkSize;
+
+    public ParallelUserParser(FileHandler fileHandler, int threads) {
+        this(fileHandler, threads, 0);
+    }
+
+    // chunkSize 0 picks a size giving every thread a few chunks
+    ParallelUserParser(FileHandler fileHandler, int threads, long chunkSize) {
+        this.fileHandler = fileHandler;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = chunkSize;
+    }
+
+    // Records are two lines, so a chunk cannot find its first record by looking for a line break.
+    // Each chunk first counts its line breaks; the running totals tell every chunk the parity of
+    // the lines it starts on, and each chunk then parses the records that begin inside it.
+    public ArrayList<User> readUser(String filePathUser) {
+        ArrayList<User> users = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(Path.of(filePathUser), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunk = chunkSize > 0 ? chunkSize
+                    : Math.min(maxChunkSize, Math.max(minChunkSize, size / (threads * 4L) + 1));
+            int chunks = (int) Math.max(1, (size + chunk - 1) / chunk);
+
+            List<Callable<Long>> counting = new ArrayList<>();
+            for (int k = 0; k < chunks; k++) {
+                long from = k * chunk;
+                long to = Math.min(size, from + chunk);
+                counting.add(() -> countLineBreaks(channel, from, to, size));
+            }
+            List<Future<Long>> counts = pool.invokeAll(counting);
+
+            List<Callable<Long>> aligning = new ArrayList<>();
+            long linesBefore = 0;
+            for (int k = 0; k < chunks; k++) {
+                long from = k * chunk;
+                long lines = linesBefore;
+                aligning.add(() -> firstRecordStart(channel, from, lines, size));
+                linesBefore += counts.get(k).get();
+            }
+            List<Future<Long>> starts = pool.invokeAll(aligning);
+
+            List<Callable<ArrayList<User>>> parsing = new ArrayList<>();
+            for (int k = 0; k < chunks; k++) {
+                long from = starts.get(k).get();
+                long to = k + 1 < chunks ? starts.get(k + 1).get() : size;
+                if (from < to) {
+                    parsing.add(() -> parseRecords(channel, from, to, fileHandler.getSymbolTable()));
+                }
+            }
+            for (Future<ArrayList<User>> part : pool.invokeAll(parsing)) {
+                users.addAll(part.get());
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        // a malformed record fails the read like it does in readUser, a partial list would pass as the whole file
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing users", e);
+        }
+        finally {
+            pool.shutdown();
+        }
+        return users;
+    }
+
+    // A line break is a '\n', or a '\r' not followed by '\n', matching BufferedReader.readLine
+    private static long countLineBreaks(FileChannel channel, long from, long to, long size) throws IOException {
+        long length = Math.min(size, to + 1) - from;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        int end = (int) (to - from);
+        long count = 0;
+        for (int i = 0; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || (b == '\r' && (i + 1 == length || buffer.get(i + 1) != '\n')))
+                count++;
+        }
+        return count;
+    }
+
+    // Offset of the first line at or after 'from' that starts a record (an even line number)
+    private static long firstRecordStart(FileChannel channel, long from, long linesBefore, long size) throws IOException {
+        if (from == 0)
+            return 0;
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long bufferStart = from - 1;
+        fill(channel, buffer, bufferStart);
+        // a line starts at 'from' when the byte before it ends a line break
+        byte previous = buffer.get(0);
+        boolean lineStart = previous == '\n'
+                || (previous == '\r' && (buffer.limit() < 2 || buffer.get(1) != '\n'));
+        if (lineStart && linesBefore % 2 == 0)
+            return from;
+
+        long lines = linesBefore;
+        long position = from;
+        while (position < size) {
+            int i = (int) (position - bufferStart);
+            if (i + 1 >= buffer.limit()) {
+                bufferStart = position;
+                fill(channel, buffer, bufferStart);
+                i = 0;
+            }
+            byte b = buffer.get(i);
+            position++;
+            if (b == '\n' || (b == '\r' && (i + 1 == buffer.limit() || buffer.get(i + 1) != '\n'))) {
+                lines++;
+                if (lines % 2 == 0)
+                    return position;
+            }
+        }
+        return size;
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) <= 0)
+                break;
+        }
+        buffer.flip();
+    }
+
+    // Ranges start and end on record boundaries, so every record in them is complete
+    private static ArrayList<User> parseRecords(FileChannel channel, long from, long to, SymbolTable symbolTable)
+            throws IOException {
+        ArrayList<User> users = new ArrayList<>();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int limit = (int) (to - from);
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        int position = 0;
+        while (position < limit) {
+            int lineEnd = lineEnd(buffer, position, limit);
+            tokenizer.reset(buffer, position, lineEnd);
+            String UserName = tokenizer.field(0);
+            String UserID = tokenizer.field(1);
+            position = nextLine(buffer, lineEnd, limit);
+            if (position == limit)
+                throw new IOException("User " + UserID + " has no liked movies line");
+
+            lineEnd = lineEnd(buffer, position, limit);
+            tokenizer.reset(buffer, position, lineEnd);
+            ArrayList<String> likedMoviesID = new ArrayList<>(tokenizer.count());
+            for (int i = 0; i < tokenizer.count(); i++) {
+                likedMoviesID.add(tokenizer.field(i, symbolTable));
+            }
+            users.add(new User(UserName, UserID, likedMoviesID));
+            position = nextLine(buffer, lineEnd, limit);
+        }
+        return users;
+    }
+
+    private static int lineEnd(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r')
+                return i;
+        }
+        return limit;
+    }
+
+    private static int nextLine(ByteBuffer buffer, int lineEnd, int limit) {
+        if (lineEnd == limit)
+            return limit;
+        if (buffer.get(lineEnd) == '\r' && lineEnd + 1 < limit && buffer.get(lineEnd + 1) == '\n')
+            return lineEnd + 2;
+        return lineEnd + 1;
+    }
+}
@@ -0,0 +1,141 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Keeps a background thread reading the next buffers of the source while the caller parses the current one.
+// Buffers come from a fixed pool and go back to it once consumed, so at most buffers * bufferSize bytes
+// are held and the reader thread waits whenever the parser falls behind.
+public class ReadAheadInputStream extends InputStream {
+    // marks the end of the source (or a failure) in the queue
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final InputStream source;
+    private final ArrayBlockingQueue<ByteBuffer> free;
+    private final ArrayBlockingQueue<ByteBuffer> filled;
+    private final Thread readerThread;
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private boolean finished;
+    private boolean closed;
+
+    public ReadAheadInputStream(InputStream source) {
+        this(source, 1 << 16, 4);
+    }
+
+    public ReadAheadInputStream(InputStream source, int bufferSize, int buffers) {
+        if (bufferSize <= 0 || buffers <= 0)
+            throw new IllegalArgumentException("bufferSize and buffers must be positive");
+        this.source = source;
+        this.free = new ArrayBlockingQueue<>(buffers);
+        // room for every pooled buffer plus END, so the reader thread never blocks on it
+        this.filled = new ArrayBlockingQueue<>(buffers + 1);
+        for (int i = 0; i < buffers; i++) {
+            free.add(ByteBuffer.allocate(bufferSize));
+        }
+        readerThread = new Thread(this::fill, "read-ahead");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    private void fill() {
+        try {
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                ByteBuffer buffer = free.take();
+                buffer.clear();
+                byte[] bytes = buffer.array();
+                while (buffer.hasRemaining()) {
+                    int read = source.read(bytes, buffer.position(), buffer.remaining());
+                    if (read < 0) {
+                        endOfStream = true;
+                        break;
+                    }
+                    buffer.position(buffer.position() + read);
+                }
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    filled.put(buffer);
+                } else {
+                    free.put(buffer);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            // closed by the consumer
+            return;
+        }
+        filled.offer(END);
+    }
+
+    private ByteBuffer next() throws IOException {
+        if (current != null && current.hasRemaining())
+            return current;
+        if (closed)
+            throw new IOException("Stream closed");
+        if (current != null) {
+            free.offer(current);
+            current = null;
+        }
+        if (finished)
+            return null;
+        ByteBuffer buffer;
+        try {
+            buffer = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the read-ahead thread");
+        }
+        if (buffer == END) {
+            finished = true;
+            if (failure != null)
+                throw failure;
+            return null;
+        }
+        current = buffer;
+        return buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = next();
+        return buffer == null ? -1 : buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        ByteBuffer buffer = next();
+        if (buffer == null)
+            return -1;
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null || closed ? 0 : current.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        readerThread.interrupt();
+        try {
+            // a read in progress finishes and the next free.take() sees the interrupt
+            readerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.example;
+
+import org.Models.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Encodes users in the output format straight from their fields into direct buffers, without building
+// a line String per user, and hands all filled buffers to the channel in one gathering write.
+// Same bytes as FileWriteHandler.writeUser through a FileWriter of the same charset.
+public class RecommendationEncoder implements Closeable {
+    private static final int defaultBufferSize = 1 << 16;
+    private static final int defaultBuffers = 4;
+    // direct buffers are expensive to allocate, default-size ones are kept for the next encoder
+    private static final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+
+    private final GatheringByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer[] buffers;
+    private final ByteBuffer separator;
+    private final ByteBuffer newline;
+    // ASCII characters encode to themselves, so ASCII text can skip the encoder
+    private final boolean asciiCompatible;
+    // buffer being filled, the ones before it are full
+    private int current;
+    // bytes already handed to the channel
+    private long flushed;
+    private boolean closed;
+
+    public RecommendationEncoder(GatheringByteChannel channel) {
+        this(channel, Charset.defaultCharset(), defaultBuffers, defaultBufferSize);
+    }
+
+    public RecommendationEncoder(GatheringByteChannel channel, Charset charset, int buffers, int bufferSize) {
+        // every buffer has to hold at least one encoded character
+        if (buffers <= 0 || bufferSize < 16)
+            throw new IllegalArgumentException("buffers must be positive and bufferSize at least 16");
+        this.channel = channel;
+        // FileWriter replaces what the charset cannot encode instead of failing
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffers = new ByteBuffer[buffers];
+        for (int i = 0; i < buffers; i++) {
+            ByteBuffer pooled = bufferSize == defaultBufferSize ? pool.poll() : null;
+            this.buffers[i] = pooled != null ? pooled : ByteBuffer.allocateDirect(bufferSize);
+        }
+        try {
+            this.separator = charset.newEncoder().encode(CharBuffer.wrap(", "));
+            this.newline = charset.newEncoder().encode(CharBuffer.wrap("\n"));
+            char[] ascii = new char[128];
+            for (char c = 0; c < 128; c++) {
+                ascii[c] = c;
+            }
+            ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap(ascii));
+            boolean identity = encoded.remaining() == 128;
+            for (int i = 0; identity && i < 128; i++) {
+                identity = encoded.get(i) == i;
+            }
+            this.asciiCompatible = identity;
+        }
+        catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("Charset cannot encode the output format: " + charset, e);
+        }
+    }
+
+    // "name, id" then the recommended titles joined by ", " (empty line when there are none)
+    public void encode(User user) throws IOException {
+        put(user.getName());
+        put(separator);
+        put(user.getId());
+        put(newline);
+        boolean first = true;
+        for (String rec : user.getRecMovies()) {
+            if (!first) put(separator);
+            put(rec);
+            first = false;
+        }
+        put(newline);
+    }
+
+    // Copies bytes that are already encoded, e.g. an unchanged record of the previous output
+    public void encodeRaw(ByteBuffer bytes) throws IOException {
+        put(bytes);
+    }
+
+    // Bytes encoded so far, flushed or not: the offset the next record starts at
+    public long getEncoded() {
+        long encoded = flushed;
+        for (int i = 0; i <= current; i++) {
+            encoded += buffers[i].position();
+        }
+        return encoded;
+    }
+
+    private void put(String text) throws IOException {
+        if (text == null) text = "null";
+        if (asciiCompatible && putAscii(text)) return;
+        CharBuffer in = CharBuffer.wrap(text);
+        while (encoder.encode(in, buffers[current], true).isOverflow()) {
+            next();
+        }
+        while (encoder.flush(buffers[current]).isOverflow()) {
+            next();
+        }
+        encoder.reset();
+    }
+
+    // Copies the text as bytes when it is all ASCII and fits the current buffer, otherwise writes nothing
+    private boolean putAscii(String text) {
+        ByteBuffer buffer = buffers[current];
+        int length = text.length();
+        if (buffer.remaining() < length) return false;
+        int position = buffer.position();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) return false;
+            buffer.put(position + i, (byte) c);
+        }
+        buffer.position(position + length);
+        return true;
+    }
+
+    private void put(ByteBuffer bytes) throws IOException {
+        ByteBuffer target = buffers[current];
+        if (target.remaining() >= bytes.remaining()) {
+            target.put(bytes.duplicate());
+            return;
+        }
+        ByteBuffer rest = bytes.duplicate();
+        while (rest.hasRemaining()) {
+            if (!buffers[current].hasRemaining()) next();
+            int length = Math.min(rest.remaining(), buffers[current].remaining());
+            buffers[current].put(rest.slice(rest.position(), length));
+            rest.position(rest.position() + length);
+        }
+    }
+
+    // Moves on to the next buffer, writing them all out once every one is full
+    private void next() throws IOException {
+        if (current + 1 < buffers.length) {
+            current++;
+            return;
+        }
+        flush();
+    }
+
+    // Writes everything encoded so far to the channel
+    public void flush() throws IOException {
+        for (int i = 0; i <= current; i++) {
+            buffers[i].flip();
+        }
+        long left = 0;
+        for (int i = 0; i <= current; i++) {
+            left += buffers[i].remaining();
+        }
+        flushed += left;
+        while (left > 0) {
+            left -= channel.write(buffers, 0, current + 1);
+        }
+        for (int i = 0; i <= current; i++) {
+            buffers[i].clear();
+        }
+        current = 0;
+    }
+
+    // Gives the buffers back to the pool; anything not flushed is dropped, the channel stays open
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.capacity() == defaultBufferSize) {
+                buffer.clear();
+                pool.offer(buffer);
+            }
+        }
+    }
+}
@@ -4,12 +4,58 @@ import org.Models.Movie;
 import org.Models.User;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class RecommendationEngine {
 
+    private GenreIndex genreIndex;
+    private GenreDictionary genreDictionary;
+    // users handled by one fork/join task before it stops splitting
+    private static final int batchSize = 256;
+
+    public RecommendationEngine() {
+    }
+
+    // Answers users from a genre -> movie postings index instead of scanning the whole catalog
+    public RecommendationEngine(GenreIndex genreIndex) {
+        this.genreIndex = genreIndex;
+    }
+
+    // Matches users with one AND of genre bitmasks per catalog movie
+    public RecommendationEngine(GenreDictionary genreDictionary) {
+        this.genreDictionary = genreDictionary;
+    }
+
+    public GenreIndex getGenreIndex() {
+        return genreIndex;
+    }
+
+    public GenreDictionary getGenreDictionary() {
+        return genreDictionary;
+    }
+
     public void GetRecommendations(User user, ArrayList<Movie> movies)
     {
+        if (genreIndex != null && genreIndex.getMovies() == movies) {
+            GetIndexedRecommendations(user);
+            return;
+        }
+        if (genreDictionary != null && genreDictionary.getMovies() == movies) {
+            GetBitmaskRecommendations(user);
+            return;
+        }
+
         ArrayList<Movie> likedMovies = user.getLikedMovies();
         ArrayList<String> RecMovies = new ArrayList<>();
 
@@ -42,4 +88,194 @@ public class RecommendationEngine {
 
     }
 
+    public void recommendAll(ArrayList<User> users, ArrayList<Movie> movies)
+    {
+        recommendAll(users, movies, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Every user only touches its own recommendation list, so splitting the batch
+    // across threads gives exactly the result of the sequential loop
+    public void recommendAll(ArrayList<User> users, ArrayList<Movie> movies, int threads)
+    {
+        if (threads <= 1 || users.size() <= batchSize) {
+            for (User user : users) {
+                GetRecommendations(user, movies);
+            }
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new RecommendTask(users, movies, 0, users.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Hands every user to the writer as soon as it is recommended. Users are claimed in input order
+    // from a shared counter, so the lowest unwritten user is always being worked on and a worker
+    // waiting for room in the writer's window can never wait on a user nobody has claimed.
+    public void recommendAll(ArrayList<User> users, ArrayList<Movie> movies, int threads,
+                             AsyncRecommendationWriter writer)
+    {
+        AtomicInteger nextUser = new AtomicInteger();
+        Callable<Void> worker = () -> {
+            try {
+                int i;
+                while ((i = nextUser.getAndIncrement()) < users.size()) {
+                    User user = users.get(i);
+                    GetRecommendations(user, movies);
+                    if (!writer.submit(i, user)) break;
+                }
+                return null;
+            } catch (Throwable t) {
+                // the failed user's slot is never filled; the other workers may be waiting for it
+                writer.abort(t);
+                throw t;
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int t = 0; t < Math.max(1, threads); t++) {
+                workers.add(pool.submit(worker));
+            }
+            for (Future<Void> running : workers) {
+                running.get();
+            }
+        } catch (ExecutionException e) {
+            writer.abort(e.getCause());
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            writer.abort(e);
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private class RecommendTask extends RecursiveAction
+    {
+        // ForkJoinTask is Serializable, these tasks are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<User> users;
+        private final ArrayList<Movie> movies;
+        private final int from;
+        private final int to;
+
+        RecommendTask(ArrayList<User> users, ArrayList<Movie> movies, int from, int to) {
+            this.users = users;
+            this.movies = movies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchSize) {
+                for (int i = from; i < to; i++) {
+                    GetRecommendations(users.get(i), movies);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RecommendTask(users, movies, from, middle),
+                    new RecommendTask(users, movies, middle, to));
+        }
+    }
+
+    // Same order as the nested scan: per liked movie, its matches in catalog order, first title wins
+    private void GetIndexedRecommendations(User user)
+    {
+        ArrayList<Movie> movies = genreIndex.getMovies();
+        ArrayList<String> RecMovies = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+
+        for(Movie lm:user.getLikedMovies())
+        {
+            for(int position:genreIndex.matching(lm))
+            {
+                String title = movies.get(position).getTitle();
+                if (seen.add(title)) {
+                    RecMovies.add(title);
+                }
+            }
+        }
+        user.setRecMovies(RecMovies);
+    }
+
+    // Each hit is bucketed under the first liked movie it matches, so the buckets
+    // concatenated in liked order reproduce the order of the nested scan
+    private void GetBitmaskRecommendations(User user)
+    {
+        ArrayList<Movie> movies = genreDictionary.getMovies();
+        ArrayList<Movie> likedMovies = user.getLikedMovies();
+        int words = genreDictionary.words();
+        long[] masks = genreDictionary.getMasks();
+
+        long[] likedMasks = new long[likedMovies.size() * words];
+        long[] userMask = new long[words];
+        for (int l = 0; l < likedMovies.size(); l++) {
+            long[] mask = genreDictionary.mask(likedMovies.get(l).getGenres());
+            for (int w = 0; w < words; w++) {
+                likedMasks[l * words + w] = mask[w];
+                userMask[w] |= mask[w];
+            }
+        }
+
+        int[] hits = new int[16];
+        int[] hitBuckets = new int[16];
+        int hitCount = 0;
+        int[] bucketSizes = new int[likedMovies.size() + 1];
+        for (int i = 0; i < movies.size(); i++) {
+            int base = i * words;
+            boolean match = false;
+            for (int w = 0; w < words && !match; w++) {
+                match = (masks[base + w] & userMask[w]) != 0;
+            }
+            if (!match) continue;
+
+            int bucket = 0;
+            while (!intersects(likedMasks, bucket * words, masks, base, words)) {
+                bucket++;
+            }
+            if (hitCount == hits.length) {
+                hits = Arrays.copyOf(hits, hitCount * 2);
+                hitBuckets = Arrays.copyOf(hitBuckets, hitCount * 2);
+            }
+            hits[hitCount] = i;
+            hitBuckets[hitCount++] = bucket;
+            bucketSizes[bucket + 1]++;
+        }
+
+        // stable counting sort of the hits by bucket
+        for (int b = 1; b < bucketSizes.length; b++) {
+            bucketSizes[b] += bucketSizes[b - 1];
+        }
+        int[] ordered = new int[hitCount];
+        for (int h = 0; h < hitCount; h++) {
+            ordered[bucketSizes[hitBuckets[h]]++] = hits[h];
+        }
+
+        ArrayList<String> RecMovies = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+        for (int position : ordered) {
+            String title = movies.get(position).getTitle();
+            if (seen.add(title)) {
+                RecMovies.add(title);
+            }
+        }
+        user.setRecMovies(RecMovies);
+    }
+
+    private static boolean intersects(long[] a, int aFrom, long[] b, int bFrom, int words)
+    {
+        for (int w = 0; w < words; w++) {
+            if ((a[aFrom + w] & b[bFrom + w]) != 0) return true;
+        }
+        return false;
+    }
+
 }
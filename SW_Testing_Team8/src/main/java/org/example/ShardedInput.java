@@ -0,0 +1,134 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// An input given as one file, a directory of shards or a glob such as data/users-*.txt.
+// Shards are read concurrently and concatenated in file name order, so the merged list is the
+// dataset the single-file readers would return and validation over it stays global.
+public class ShardedInput {
+    private final FileHandler fileHandler;
+    private final int threads;
+    private boolean lazyGenres;
+
+    public ShardedInput(FileHandler fileHandler) {
+        this(fileHandler, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShardedInput(FileHandler fileHandler, int threads) {
+        this.fileHandler = fileHandler;
+        this.threads = Math.max(1, threads);
+    }
+
+    // Read movies as LazyMovie, genre lists are only built for movies that need them
+    public void setLazyGenres(boolean lazyGenres) {
+        this.lazyGenres = lazyGenres;
+    }
+
+    public ArrayList<Movie> readMovies(String input) {
+        List<Path> shards = resolve(input);
+        if (shards.size() == 1) {
+            String file = shards.get(0).toString();
+            return lazyGenres ? fileHandler.readMoviesLazy(file) : fileHandler.readMoviesReadAhead(file);
+        }
+        return readShards(shards, file -> fileHandler.readMoviesShard(file, lazyGenres));
+    }
+
+    public ArrayList<User> readUsers(String input) {
+        List<Path> shards = resolve(input);
+        if (shards.size() == 1) {
+            return fileHandler.readUserParallel(shards.get(0).toString());
+        }
+        return readShards(shards, fileHandler::readUserShard);
+    }
+
+    // A shard that fails, including one that cannot be read to its end (UncheckedIOException),
+    // fails the whole read, so the merged list is never missing records of a shard
+    private <T> ArrayList<T> readShards(List<Path> shards, Function<String, ArrayList<T>> reader) {
+        ArrayList<T> records = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, shards.size())));
+        try {
+            List<Future<ArrayList<T>>> parts = new ArrayList<>();
+            for (Path shard : shards) {
+                parts.add(pool.submit(() -> reader.apply(shard.toString())));
+            }
+            for (Future<ArrayList<T>> part : parts) {
+                records.addAll(part.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading shards", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+        finally {
+            // the shards still being read are of no use once one failed
+            pool.shutdownNow();
+        }
+        return records;
+    }
+
+    public static boolean isSharded(String input) {
+        return isGlob(input) || Files.isDirectory(Path.of(input));
+    }
+
+    // The files behind an input in name order. A glob may only use wildcards in its last part.
+    public static List<Path> resolve(String input) {
+        if (!isGlob(input)) {
+            Path path = Path.of(input);
+            if (!Files.isDirectory(path)) {
+                return List.of(path);
+            }
+            return list(path, "*");
+        }
+        int separator = Math.max(input.lastIndexOf('/'), input.lastIndexOf(File.separatorChar));
+        Path directory = separator < 0 ? Path.of("") : Path.of(input.substring(0, separator + 1));
+        return list(directory, input.substring(separator + 1));
+    }
+
+    private static List<Path> list(Path directory, String glob) {
+        PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+        try (Stream<Path> files = Files.list(directory.toAbsolutePath())) {
+            List<Path> shards = files
+                    .filter(file -> !file.getFileName().toString().startsWith("."))
+                    .filter(file -> matcher.matches(file.getFileName()) && Files.isRegularFile(file))
+                    .sorted()
+                    .toList();
+            if (shards.isEmpty()) {
+                System.out.println("No input files match " + glob + " in " + directory.toAbsolutePath());
+            }
+            return shards;
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    private static boolean isGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,228 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Canonical instances for the strings that repeat across records (genres, movie IDs).
+// Lookups hash the characters where they lie, so a string that is already known costs no allocation.
+// Shared by parser threads: a value that is already known is found without locking, new values are
+// added under the lock of one of 16 stripes. Once maxSize values are held, new ones are returned as
+// plain strings instead of being added.
+public class SymbolTable {
+    private static final int stripeCount = 16;
+    private static final int defaultMaxSize = 1 << 20;
+
+    private final Stripe[] stripes = new Stripe[stripeCount];
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public SymbolTable() {
+        this(defaultMaxSize);
+    }
+
+    public SymbolTable(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize must not be negative");
+        this.maxSize = maxSize;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public String intern(String value) {
+        return value == null ? null : intern(value, 0, value.length());
+    }
+
+    public String intern(CharSequence text, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        lookups.increment();
+        Stripe stripe = stripe(hash);
+        String symbol = stripe.find(hash, text, from, to);
+        if (symbol != null) {
+            hit(symbol);
+            return symbol;
+        }
+        return stripe.add(hash, text.subSequence(from, to).toString());
+    }
+
+    // UTF-8 bytes. Only ASCII ranges are looked up in place (a byte is then the char), anything else
+    // returns null and the caller decodes the field and interns the String.
+    public String internAscii(ByteBuffer bytes, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) return null;
+            hash = 31 * hash + b;
+        }
+        lookups.increment();
+        Stripe stripe = stripe(hash);
+        String symbol = stripe.find(hash, bytes, from, to);
+        if (symbol != null) {
+            hit(symbol);
+            return symbol;
+        }
+        char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            chars[i - from] = (char) bytes.get(i);
+        }
+        return stripe.add(hash, new String(chars));
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // Values that were not added because the table was full
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // Estimated heap the duplicates would have taken: a String object plus its byte array per hit
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public String report() {
+        String report = "Symbol table: " + size() + " distinct strings, " + getHits() + " duplicates shared, ~"
+                + getBytesSaved() + " bytes saved";
+        long full = getRejected();
+        return full == 0 ? report : report + ", " + full + " values not shared (table full)";
+    }
+
+    private void hit(String symbol) {
+        hits.increment();
+        bytesSaved.add(stringSize(symbol));
+    }
+
+    // the slot within a stripe comes from the low bits, the stripe from the high ones
+    private Stripe stripe(int hash) {
+        return stripes[(hash * 0x9E3779B9) >>> 28];
+    }
+
+    private static final class Entry {
+        final int hash;
+        final String symbol;
+
+        Entry(int hash, String symbol) {
+            this.hash = hash;
+            this.symbol = symbol;
+        }
+    }
+
+    // Open addressing, at most half full. Entries are immutable and a resize publishes a new array,
+    // so a reader without the lock sees either a complete entry or none and then takes the lock.
+    private final class Stripe {
+        private volatile Entry[] entries = new Entry[16];
+        private int count;
+
+        String find(int hash, CharSequence text, int from, int to) {
+            Entry[] table = entries;
+            int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                Entry entry = table[slot];
+                if (entry == null) return null;
+                if (entry.hash == hash && matches(entry.symbol, text, from, to)) return entry.symbol;
+            }
+        }
+
+        String find(int hash, ByteBuffer bytes, int from, int to) {
+            Entry[] table = entries;
+            int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                Entry entry = table[slot];
+                if (entry == null) return null;
+                if (entry.hash == hash && matches(entry.symbol, bytes, from, to)) return entry.symbol;
+            }
+        }
+
+        // Another thread may have added the value since the lookup missed
+        synchronized String add(int hash, String value) {
+            Entry[] table = entries;
+            int mask = table.length - 1;
+            int slot = spread(hash) & mask;
+            for (Entry entry; (entry = table[slot]) != null; slot = (slot + 1) & mask) {
+                if (entry.hash == hash && entry.symbol.equals(value)) {
+                    hit(entry.symbol);
+                    return entry.symbol;
+                }
+            }
+            if (size.incrementAndGet() > maxSize) {
+                size.decrementAndGet();
+                rejected.increment();
+                return value;
+            }
+            table[slot] = new Entry(hash, value);
+            count++;
+            if (2 * count > table.length) {
+                entries = resize(table);
+            }
+            return value;
+        }
+
+        private Entry[] resize(Entry[] old) {
+            Entry[] table = new Entry[old.length * 2];
+            int mask = table.length - 1;
+            for (Entry entry : old) {
+                if (entry == null) continue;
+                int slot = spread(entry.hash) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry;
+            }
+            return table;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String symbol, CharSequence text, int from, int to) {
+        if (symbol.length() != to - from) return false;
+        for (int i = from; i < to; i++) {
+            if (symbol.charAt(i - from) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(String symbol, ByteBuffer bytes, int from, int to) {
+        if (symbol.length() != to - from) return false;
+        for (int i = from; i < to; i++) {
+            if (symbol.charAt(i - from) != bytes.get(i)) return false;
+        }
+        return true;
+    }
+
+    // 24-byte String header plus the 16-byte array header and one (Latin-1) or two bytes per char, 8-aligned
+    static long stringSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + ((16 + (long) value.length() * bytesPerChar + 7) & ~7L);
+    }
+}
@@ -0,0 +1,157 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.MovieIndex;
+import org.Models.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Follow mode: keeps users.txt open for appends and only handles the records added since the last pass.
+// Invalid records are reported and skipped so one bad append does not stop the service.
+public class UserFileFollower {
+    // records validated and recommended together before their output is appended
+    private static final int batchSize = 4096;
+
+    private final UserRecordReader reader;
+    private final ArrayList<Movie> movies;
+    private final MovieIndex movieIndex;
+    private final RecommendationEngine engine;
+    private final UserValidator userValidator = new UserValidator();
+    private String outputPath;
+    private boolean outputStarted;
+    private boolean compressed;
+    private int threads = 1;
+    private volatile long processed;
+    private long skipped;
+
+    public UserFileFollower(String filePathUser, ArrayList<Movie> movies, RecommendationEngine engine) {
+        this(filePathUser, 0, movies, engine);
+    }
+
+    // Starting past 0 resumes after records a previous run already wrote out
+    public UserFileFollower(String filePathUser, long offset, ArrayList<Movie> movies, RecommendationEngine engine) {
+        this.reader = new UserRecordReader(filePathUser, offset);
+        this.movies = movies;
+        this.movieIndex = new MovieIndex(movies);
+        this.engine = engine;
+        this.outputStarted = offset > 0;
+    }
+
+    public void setOutputPath(String outputPath) {
+        this.outputPath = outputPath;
+    }
+
+    public void setSymbolTable(SymbolTable symbolTable) {
+        reader.setSymbolTable(symbolTable);
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getOffset() {
+        return reader.getOffset();
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public UserValidator getUserValidator() {
+        return userValidator;
+    }
+
+    // Handles every complete record appended since the last call and returns how many were written
+    public int processAppended() {
+        int written = 0;
+        ArrayList<User> batch = new ArrayList<>();
+        boolean more;
+        do {
+            batch.clear();
+            long before = reader.getOffset();
+            try {
+                more = reader.readAvailable(batchSize, user -> {
+                    if (accept(user)) batch.add(user);
+                }) == batchSize;
+            } catch (IOException e) {
+                e.printStackTrace();
+                // a malformed record is already behind the offset, carry on with the next one
+                more = reader.getOffset() != before;
+                if (more) skipped++;
+            }
+            written += flush(batch);
+        } while (more);
+        return written;
+    }
+
+    private boolean accept(User user) {
+        List<String> ids = userValidator.getUserIdList();
+        int known = ids.size();
+        String error = MovieRecommendationApp.validateUser(user, userValidator, movieIndex);
+        if (error == null) return true;
+        // the ID is registered before the liked movies are checked; a skipped record must not keep it taken
+        if (ids.size() > known) ids.remove(ids.size() - 1);
+        // the log only keeps the error of this record, later records are judged on their own
+        System.out.println("Skipping user record: " + error);
+        userValidator.getExceptionHandler().clearErrorLog();
+        skipped++;
+        return false;
+    }
+
+    private int flush(ArrayList<User> batch) {
+        if (batch.isEmpty() && outputStarted) return 0;
+        engine.recommendAll(batch, movies, threads);
+        FileWriteHandler outputWriter = new FileWriteHandler(batch);
+        if (outputPath != null) outputWriter.setFilePath(outputPath);
+        outputWriter.setCompressed(compressed);
+        // the first pass of a fresh run replaces the previous output
+        outputWriter.setAppend(outputStarted);
+        outputWriter.write();
+        outputStarted = true;
+        processed += batch.size();
+        return batch.size();
+    }
+
+    // Blocks until the thread is interrupted, handling appends as the file system reports them.
+    // The timed poll also catches appends on file systems that do not deliver events.
+    public void follow() throws IOException, InterruptedException {
+        Path file = reader.getFile().toAbsolutePath();
+        Path directory = file.getParent();
+        try (WatchService watcher = directory.getFileSystem().newWatchService()) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            processAppended();
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.poll(1, TimeUnit.SECONDS);
+                boolean changed = key == null;
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || file.getFileName().equals(event.context())) {
+                            changed = true;
+                        }
+                    }
+                    key.reset();
+                }
+                if (changed && reader.hasMore()) {
+                    processAppended();
+                }
+            }
+        }
+    }
+}
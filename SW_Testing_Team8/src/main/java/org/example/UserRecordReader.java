@@ -0,0 +1,143 @@
+package org.example;
+
+import org.Models.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+// Reads two-line user records starting at a byte offset and remembers where the last complete
+// record ended, so a file that keeps growing can be read again from that point.
+public class UserRecordReader {
+    private final Path file;
+    private long offset;
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    private SymbolTable symbolTable = new SymbolTable();
+    // set by findLineEnd: end of the line's content and start of the following line
+    private int lineEnd;
+    private int nextLine;
+
+    public UserRecordReader(String filePathUser, long offset) {
+        this.file = Path.of(filePathUser);
+        this.offset = offset;
+    }
+
+    // Liked movie IDs resolve to the instances of this table, usually the one the catalog was read with
+    public void setSymbolTable(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean hasMore() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.size() > offset;
+        }
+    }
+
+    // Hands every complete record after the offset to the consumer, at most maxRecords of them.
+    // A record whose lines are not both terminated yet is left for the next call. A malformed
+    // record is skipped and reported with an IOException once the records before it are consumed.
+    public int readAvailable(int maxRecords, Consumer<User> consumer) throws IOException {
+        return readAvailable(maxRecords, false, consumer);
+    }
+
+    // endOfInput: nothing more will be appended, so the end of the file also ends the last line,
+    // as it does for FileHandler.readUser
+    public int readAvailable(int maxRecords, boolean endOfInput, Consumer<User> consumer) throws IOException {
+        int records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < offset)
+                throw new IOException(file + " is shorter than the last processed offset " + offset);
+            buffer.clear();
+            long readPosition = offset;
+            boolean endOfFile = false;
+            while (records < maxRecords && !endOfFile) {
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                }
+                int read = channel.read(buffer, readPosition);
+                if (read <= 0) {
+                    endOfFile = true;
+                } else {
+                    readPosition += read;
+                }
+
+                buffer.flip();
+                int position = 0;
+                int limit = buffer.limit();
+                boolean dataEnds = endOfInput && endOfFile;
+                while (records < maxRecords && findLineEnd(position, limit, dataEnds)) {
+                    int userStart = position;
+                    int userEnd = lineEnd;
+                    int likedStart = nextLine;
+                    if (!findLineEnd(likedStart, limit, dataEnds)) {
+                        if (dataEnds) {
+                            offset += limit - userStart;
+                            throw new IOException("User record at the end of " + file + " has no liked movies line");
+                        }
+                        break;
+                    }
+                    position = nextLine;
+                    offset += position - userStart;
+
+                    tokenizer.reset(buffer, userStart, userEnd);
+                    if (tokenizer.count() < 2)
+                        throw new IOException("Malformed user record before byte " + offset + " of " + file);
+                    String UserName = tokenizer.field(0);
+                    String UserID = tokenizer.field(1);
+                    tokenizer.reset(buffer, likedStart, lineEnd);
+                    ArrayList<String> likedMoviesID = new ArrayList<>(tokenizer.count());
+                    for (int i = 0; i < tokenizer.count(); i++) {
+                        likedMoviesID.add(tokenizer.field(i, symbolTable));
+                    }
+                    consumer.accept(new User(UserName, UserID, likedMoviesID));
+                    records++;
+                }
+                buffer.position(position);
+                buffer.compact();
+            }
+        }
+        return records;
+    }
+
+    // Only terminated lines count; a '\r' at the end of the data may still be followed by '\n'.
+    // When the data ends for good, a last unterminated line counts too.
+    private boolean findLineEnd(int from, int limit, boolean dataEnds) {
+        for (int i = from; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                lineEnd = i;
+                nextLine = i + 1;
+                return true;
+            }
+            if (b == '\r') {
+                if (i + 1 == limit && !dataEnds)
+                    return false;
+                lineEnd = i;
+                nextLine = i + 1 < limit && buffer.get(i + 1) == '\n' ? i + 2 : i + 1;
+                return true;
+            }
+        }
+        if (dataEnds && from < limit) {
+            lineEnd = limit;
+            nextLine = limit;
+            return true;
+        }
+        return false;
+    }
+}
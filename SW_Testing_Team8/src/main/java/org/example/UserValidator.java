@@ -30,17 +30,31 @@ public class UserValidator {
 
     public ExceptionHandler getExceptionHandler() {return exceptionHandler;}
 
+    public List<String> getUserIdList() {
+        return userIdList;
+    }
+
+    public void setUserIdList(List<String> userIdList) {
+        this.userIdList = new ArrayList<>(userIdList);
+    }
+
     public boolean validateUserName(String userName) {
+        return validateUserName(userName, 0, userName == null ? 0 : userName.length());
+    }
+
+    // Same rules on a field still inside the line it was read from, the String is only built for the error
+    public boolean validateUserName(CharSequence text, int from, int to) {
         boolean result = true;
         try {
-            if (userName == null || userName.isEmpty() || userName.charAt(0) == ' ') {
-                exceptionHandler.throwValidationError("ERROR: User Name " + userName + " is wrong");
+            if (text == null || from == to || text.charAt(from) == ' ') {
+                exceptionHandler.throwValidationError("ERROR: User Name " + (text == null ? null : text.subSequence(from, to)) + " is wrong");
             }
 
 
-            for (char c : userName.toCharArray()) {
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
                 if (!Character.isAlphabetic(c) && c != ' ') {
-                    exceptionHandler.throwValidationError("ERROR: User Name " + userName + " is wrong");
+                    exceptionHandler.throwValidationError("ERROR: User Name " + text.subSequence(from, to) + " is wrong");
                 }
             }
 
@@ -0,0 +1,83 @@
+package org.Models;
+
+import org.example.FileHandler;
+import org.example.GenreDictionary;
+import org.example.GenreIndex;
+import org.example.RecommendationEngine;
+import org.example.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyMovieTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Genres match String.split on the raw line")
+    void testSplitSemantics() {
+        for (String line : new String[]{"Action", "", "Action,Drama", "Action,,Drama", ",Action",
+                "Action,", "Action,Drama,,", ",", ",,", " Action , Drama"}) {
+            LazyMovie movie = new LazyMovie("Title", "T123", line, null);
+            List<String> visited = new ArrayList<>();
+            movie.forEachGenre(visited::add);
+
+            assertEquals(Arrays.asList(line.split(",")), visited, line);
+            assertFalse(movie.isMaterialized());
+            assertEquals(Arrays.asList(line.split(",")), movie.getGenres(), line);
+            assertTrue(movie.isMaterialized());
+        }
+    }
+
+    @Test
+    @DisplayName("The list is built once and genres come from the symbol table")
+    void testMaterializedOnce() {
+        SymbolTable symbols = new SymbolTable();
+        String action = symbols.intern("Action");
+        LazyMovie movie = new LazyMovie("Title", "T123", "Action,Drama", symbols);
+
+        ArrayList<String> genres = movie.getGenres();
+
+        assertSame(genres, movie.getGenres());
+        assertSame(action, genres.get(0));
+        assertEquals("Action,Drama", movie.getGenreLine());
+    }
+
+    @Test
+    @DisplayName("Only liked movies build their genre list during a run")
+    void testOnlyLikedMoviesMaterialized() throws Exception {
+        Path file = tempDir.resolve("movies.txt");
+        Files.writeString(file, "The Dark Knight,TDK123\nAction,Thriller\n"
+                + "Inception,I456\nAction,SciFi\n"
+                + "The Notebook,TN789\nRomance,Drama\n");
+        FileHandler fileHandler = new FileHandler();
+        ArrayList<Movie> lazy = fileHandler.readMoviesLazy(file.toString());
+        ArrayList<Movie> eager = fileHandler.readMovies(file.toString());
+
+        GenreIndex index = new GenreIndex(lazy);
+        GenreDictionary lazyDictionary = new GenreDictionary(lazy);
+        GenreDictionary eagerDictionary = new GenreDictionary(eager);
+        User user = new User("John Doe", "123456789", new ArrayList<>(List.of("I456")));
+        user.linkLikedMovies(new MovieIndex(lazy));
+        new RecommendationEngine(index).GetRecommendations(user, lazy);
+
+        User expected = new User("John Doe", "123456789", new ArrayList<>(List.of("I456")));
+        expected.linkLikedMovies(new MovieIndex(eager));
+        new RecommendationEngine().GetRecommendations(expected, eager);
+
+        assertEquals(expected.getRecMovies(), user.getRecMovies());
+        assertFalse(((LazyMovie) lazy.get(0)).isMaterialized());
+        assertTrue(((LazyMovie) lazy.get(1)).isMaterialized());
+        assertFalse(((LazyMovie) lazy.get(2)).isMaterialized());
+        assertArrayEquals(eagerDictionary.getMasks(), lazyDictionary.getMasks());
+    }
+}
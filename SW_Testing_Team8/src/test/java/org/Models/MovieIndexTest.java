@@ -0,0 +1,65 @@
+package org.Models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieIndexTest {
+    private ArrayList<Movie> availableMovies;
+
+    @BeforeEach
+    void setUp() {
+        availableMovies = new ArrayList<>();
+        availableMovies.add(new Movie("The Dark Knight", "TDK123", new ArrayList<>(List.of("Action"))));
+        availableMovies.add(new Movie("Inception", "INC456", new ArrayList<>(List.of("Action"))));
+        availableMovies.add(new Movie("The Godfather", "TG789", new ArrayList<>(List.of("Drama"))));
+    }
+
+    @Test
+    @DisplayName("Index finds movies by ID")
+    void testLookup() {
+        MovieIndex index = new MovieIndex(availableMovies);
+
+        assertSame(availableMovies.get(1), index.get("INC456"));
+        assertArrayEquals(new int[]{2}, index.positionsOf("TG789"));
+        assertNull(index.get("XYZ999"));
+        assertEquals(0, index.positionsOf("XYZ999").length);
+    }
+
+    @Test
+    @DisplayName("Linking through the index matches setLikedMovies")
+    void testLinkMatchesSetLikedMovies() {
+        List<List<String>> likedLists = List.of(
+                List.of("TG789", "TDK123"), List.of("TDK123", "XYZ999"), List.of("INC456", "INC456"), List.of());
+        MovieIndex index = new MovieIndex(availableMovies);
+
+        for (List<String> liked : likedLists) {
+            User scanned = new User("John Doe", "123456789", new ArrayList<>(liked));
+            User indexed = new User("John Doe", "123456789", new ArrayList<>(liked));
+
+            assertEquals(scanned.setLikedMovies(availableMovies), indexed.linkLikedMovies(index));
+            assertEquals(scanned.getLikedMovies(), indexed.getLikedMovies());
+        }
+    }
+
+    @Test
+    @DisplayName("Duplicate movie IDs in the catalog link every copy in catalog order")
+    void testDuplicateCatalogIds() {
+        availableMovies.add(new Movie("The Dark Knight Rises", "TDK123", new ArrayList<>(List.of("Action"))));
+        MovieIndex index = new MovieIndex(availableMovies);
+
+        User user = new User("John Doe", "123456789", new ArrayList<>(Arrays.asList("TDK123", "TG789")));
+
+        assertTrue(user.linkLikedMovies(index));
+        assertEquals(3, user.getLikedMovies().size());
+        assertEquals("The Dark Knight", user.getLikedMovies().get(0).getTitle());
+        assertEquals("The Godfather", user.getLikedMovies().get(1).getTitle());
+        assertEquals("The Dark Knight Rises", user.getLikedMovies().get(2).getTitle());
+    }
+}
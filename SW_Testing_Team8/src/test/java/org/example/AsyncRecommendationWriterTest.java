@@ -0,0 +1,158 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncRecommendationWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private User user(String name, String id, String... recommendations) {
+        User user = new User(name, id, new ArrayList<>(Arrays.asList("TDK123")));
+        user.setRecMovies(new ArrayList<>(Arrays.asList(recommendations)));
+        return user;
+    }
+
+    private FileWriteHandler handler(ArrayList<User> users, Path output) {
+        FileWriteHandler handler = new FileWriteHandler(users);
+        handler.setFilePath(output.toString());
+        return handler;
+    }
+
+    @Test
+    @DisplayName("Users submitted out of order are written in input order")
+    void testOutOfOrderSubmits() throws Exception {
+        ArrayList<User> users = new ArrayList<>();
+        users.add(user("John Doe", "123456789", "Inception"));
+        users.add(user("Jane Smith", "98765432A", "The Notebook", "Titanic"));
+        users.add(user("Bob Stone", "55555555B"));
+        Path output = tempDir.resolve("out.txt");
+
+        try (AsyncRecommendationWriter writer = new AsyncRecommendationWriter(handler(users, output), 4)) {
+            assertTrue(writer.submit(2, users.get(2)));
+            assertTrue(writer.submit(1, users.get(1)));
+            assertTrue(writer.submit(0, users.get(0)));
+        }
+
+        assertEquals("John Doe, 123456789\nInception\n"
+                + "Jane Smith, 98765432A\nThe Notebook, Titanic\n"
+                + "Bob Stone, 55555555B\n\n", Files.readString(output));
+    }
+
+    @Test
+    @DisplayName("Many workers through a small window give the same file as the synchronous writer")
+    void testMatchesSynchronousWriter() throws Exception {
+        ArrayList<Movie> movies = new ArrayList<>();
+        movies.add(new Movie("The Dark Knight", "TDK123", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("Inception", "I456", new ArrayList<>(Arrays.asList("Action", "SciFi"))));
+        movies.add(new Movie("The Notebook", "TN789", new ArrayList<>(Arrays.asList("Romance"))));
+        ArrayList<User> users = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String liked = i % 3 == 0 ? "TN789" : i % 3 == 1 ? "I456" : "TDK123";
+            User user = new User("User Number", String.format("%08d%c", i, 'A' + i % 26),
+                    new ArrayList<>(Arrays.asList(liked)));
+            user.setLikedMovies(new ArrayList<>(Arrays.asList(movies.get(2 - i % 3))));
+            users.add(user);
+        }
+        RecommendationEngine engine = new RecommendationEngine(new GenreIndex(movies));
+
+        Path async = tempDir.resolve("async.txt");
+        AsyncRecommendationWriter writer = new AsyncRecommendationWriter(handler(users, async), 8);
+        engine.recommendAll(users, movies, 6, writer);
+        writer.close();
+        assertEquals(users.size(), writer.getWritten());
+
+        Path sync = tempDir.resolve("sync.txt");
+        handler(users, sync).write();
+        assertEquals(Files.readString(sync), Files.readString(async));
+    }
+
+    @Test
+    @DisplayName("Aborting releases a worker waiting for room in the window")
+    void testAbortReleasesWaitingWorker() throws Exception {
+        ArrayList<User> users = new ArrayList<>();
+        users.add(user("John Doe", "123456789", "Inception"));
+        users.add(user("Jane Smith", "98765432A", "Titanic"));
+        AtomicBoolean accepted = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(1);
+
+        AsyncRecommendationWriter writer = new AsyncRecommendationWriter(handler(users, tempDir.resolve("out.txt")), 1);
+        Thread worker = new Thread(() -> {
+            try {
+                started.countDown();
+                // index 1 is outside the window until index 0 is written, which never happens
+                accepted.set(writer.submit(1, users.get(1)));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        started.await();
+        writer.abort(new IllegalStateException("worker failed"));
+        worker.join(5000);
+        writer.close();
+
+        assertFalse(worker.isAlive());
+        assertFalse(accepted.get());
+        assertEquals(0, writer.getWritten());
+    }
+
+    @Test
+    @DisplayName("A user whose recommendation fails stops every worker instead of leaving them waiting")
+    void testFailingUserDoesNotHang() throws Exception {
+        ArrayList<Movie> movies = new ArrayList<>();
+        movies.add(new Movie("The Dark Knight", "TDK123", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("Inception", "I456", new ArrayList<>(Arrays.asList("Action", "SciFi"))));
+        ArrayList<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            User user = new User("User Number", String.format("%08d%c", i, 'A' + i % 26),
+                    new ArrayList<>(Arrays.asList("TDK123")));
+            user.setLikedMovies(new ArrayList<>(Arrays.asList(movies.get(0))));
+            users.add(user);
+        }
+
+        // either worker may end up with the failing user, so a few rounds cover both
+        for (int round = 0; round < 10; round++) {
+            CountDownLatch windowFull = new CountDownLatch(1);
+            RecommendationEngine engine = new RecommendationEngine(new GenreIndex(movies)) {
+                @Override
+                public void GetRecommendations(User user, ArrayList<Movie> movies) {
+                    if (user == users.get(0)) {
+                        // fail once the other worker has filled the window and waits for this slot
+                        try {
+                            windowFull.await(5, java.util.concurrent.TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IllegalStateException("recommendation failed");
+                    }
+                    if (user == users.get(4)) windowFull.countDown();
+                    super.GetRecommendations(user, movies);
+                }
+            };
+            AsyncRecommendationWriter writer = new AsyncRecommendationWriter(
+                    handler(users, tempDir.resolve("out.txt")), 4);
+
+            IllegalStateException e = assertTimeoutPreemptively(java.time.Duration.ofSeconds(10),
+                    () -> assertThrows(IllegalStateException.class, () -> engine.recommendAll(users, movies, 2, writer)));
+            writer.close();
+
+            assertEquals("recommendation failed", e.getMessage());
+            assertEquals(0, writer.getWritten());
+        }
+    }
+}
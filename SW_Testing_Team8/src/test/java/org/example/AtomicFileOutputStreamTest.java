@@ -0,0 +1,84 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFileOutputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    private long filesIn(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Target only changes on commit")
+    void testCommitReplacesTarget() throws Exception {
+        Path target = tempDir.resolve("recommendations.txt");
+        Files.writeString(target, "previous run");
+
+        AtomicFileOutputStream out = new AtomicFileOutputStream(target, false, FsyncPolicy.ON_CLOSE);
+        out.write("new output".getBytes(StandardCharsets.UTF_8));
+        assertEquals("previous run", Files.readString(target));
+        assertEquals(2, filesIn(tempDir));
+
+        out.commit();
+        out.close();
+        assertTrue(out.isCommitted());
+        assertEquals("new output", Files.readString(target));
+        assertEquals(1, filesIn(tempDir));
+    }
+
+    @Test
+    @DisplayName("Closing without commit keeps the previous file and removes the temp file")
+    void testCloseWithoutCommit() throws Exception {
+        Path target = tempDir.resolve("recommendations.txt");
+        Files.writeString(target, "previous run");
+
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(target, false, FsyncPolicy.NONE)) {
+            out.write("half written".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals("previous run", Files.readString(target));
+        assertEquals(1, filesIn(tempDir));
+    }
+
+    @Test
+    @DisplayName("Appending writes to the target in place")
+    void testAppendInPlace() throws Exception {
+        Path target = tempDir.resolve("recommendations.txt");
+        Files.writeString(target, "first\n");
+
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(target, true, FsyncPolicy.everyMegabytes(1))) {
+            out.write(new byte[3 << 20]);
+            out.write("second\n".getBytes(StandardCharsets.UTF_8));
+            out.commit();
+        }
+
+        assertEquals(6 + (3 << 20) + 7, Files.size(target));
+        assertEquals(1, filesIn(tempDir));
+    }
+
+    @Test
+    @DisplayName("Fsync policies parse from their names")
+    void testParsePolicy() {
+        assertSame(FsyncPolicy.NONE, FsyncPolicy.parse("none"));
+        assertSame(FsyncPolicy.ON_CLOSE, FsyncPolicy.parse("Close"));
+        assertEquals(8L << 20, FsyncPolicy.parse("8mb").getInterval());
+        assertEquals(2L << 20, FsyncPolicy.parse("2").getInterval());
+        assertEquals("8mb", FsyncPolicy.parse("8MB").toString());
+        assertThrows(IllegalArgumentException.class, () -> FsyncPolicy.parse("sometimes"));
+        assertThrows(IllegalArgumentException.class, () -> FsyncPolicy.parse("0mb"));
+    }
+}
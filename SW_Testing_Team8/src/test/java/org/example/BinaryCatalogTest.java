@@ -0,0 +1,142 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCatalogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path moviesFile;
+    private Path usersFile;
+    private Path catalogFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        moviesFile = tempDir.resolve("movies.txt");
+        usersFile = tempDir.resolve("users.txt");
+        catalogFile = tempDir.resolve("catalog.bin");
+        Files.writeString(moviesFile, "The Dark Knight,TDK123\nAction,Thriller\n"
+                + "Inception,INC456\nAction,Scifi\n"
+                + "The Godfather,TG789\nDrama\n");
+        Files.writeString(usersFile, "John Doe,123456789\nTDK123,TG789\n"
+                + "Jane Smith,98765432A\nINC456\n");
+    }
+
+    @Test
+    @DisplayName("Compiled catalog loads back the same movies and linked users")
+    void testRoundTrip() {
+        assertNull(BinaryCatalog.compile(moviesFile.toString(), usersFile.toString(), catalogFile.toString()));
+
+        BinaryCatalog catalog = BinaryCatalog.load(catalogFile.toString());
+        ArrayList<Movie> expected = new FileHandler().readMovies(moviesFile.toString());
+
+        assertNotNull(catalog);
+        assertEquals(expected.size(), catalog.getMovies().size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTitle(), catalog.getMovies().get(i).getTitle());
+            assertEquals(expected.get(i).getMovieID(), catalog.getMovies().get(i).getMovieID());
+            assertEquals(expected.get(i).getGenres(), catalog.getMovies().get(i).getGenres());
+        }
+        User john = catalog.getUsers().get(0);
+        assertEquals("John Doe", john.getName());
+        assertEquals(List.of("TDK123", "TG789"), john.getLikedMoviesId());
+        assertEquals(2, john.getLikedMovies().size());
+        assertSame(catalog.getMovies().get(2), john.getLikedMovies().get(1));
+        assertEquals("98765432A", catalog.getUsers().get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Stale catalog is not loaded")
+    void testLoadIfFresh() throws Exception {
+        BinaryCatalog.compile(moviesFile.toString(), usersFile.toString(), catalogFile.toString());
+
+        assertNotNull(BinaryCatalog.loadIfFresh(catalogFile.toString(), moviesFile.toString(), usersFile.toString()));
+
+        Files.writeString(usersFile, "John Doe,123456789\nTDK123\n");
+        Files.setLastModifiedTime(usersFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertNull(BinaryCatalog.loadIfFresh(catalogFile.toString(), moviesFile.toString(), usersFile.toString()));
+        assertNull(BinaryCatalog.loadIfFresh(tempDir.resolve("missing.bin").toString(),
+                moviesFile.toString(), usersFile.toString()));
+    }
+
+    @Test
+    @DisplayName("Invalid input is reported and not compiled")
+    void testInvalidInput() throws Exception {
+        Files.writeString(moviesFile, "the dark knight,TDK123\nAction\n");
+
+        String error = BinaryCatalog.compile(moviesFile.toString(), usersFile.toString(), catalogFile.toString());
+
+        assertEquals("ERROR: Movie Title the dark knight is wrong", error);
+        assertFalse(Files.exists(catalogFile));
+    }
+
+    @Test
+    @DisplayName("Catalog read through small mapping windows loads the same data")
+    void testSmallWindows() {
+        BinaryCatalog.compile(moviesFile.toString(), usersFile.toString(), catalogFile.toString());
+
+        BinaryCatalog whole = BinaryCatalog.load(catalogFile.toString());
+        for (int windowSize : new int[] { 8, 13, 64 }) {
+            BinaryCatalog windowed = BinaryCatalog.load(catalogFile.toString(), windowSize);
+            assertNotNull(windowed);
+            assertEquals(whole.getMovies().size(), windowed.getMovies().size());
+            for (int i = 0; i < whole.getMovies().size(); i++) {
+                assertEquals(whole.getMovies().get(i).getTitle(), windowed.getMovies().get(i).getTitle());
+                assertEquals(whole.getMovies().get(i).getGenres(), windowed.getMovies().get(i).getGenres());
+            }
+            assertEquals(whole.getUsers().get(0).getLikedMoviesId(), windowed.getUsers().get(0).getLikedMoviesId());
+        }
+    }
+
+    @Test
+    @DisplayName("Truncated or corrupt catalog is treated as not fresh")
+    void testCorruptCatalog() throws Exception {
+        BinaryCatalog.compile(moviesFile.toString(), usersFile.toString(), catalogFile.toString());
+        byte[] bytes = Files.readAllBytes(catalogFile);
+
+        for (int length : new int[] { 4, 40, bytes.length / 2, bytes.length - 1 }) {
+            Files.write(catalogFile, java.util.Arrays.copyOf(bytes, length));
+            assertNull(BinaryCatalog.loadIfFresh(catalogFile.toString(), moviesFile.toString(), usersFile.toString()));
+        }
+
+        byte[] corrupt = bytes.clone();
+        // string count right after the header
+        corrupt[40] = (byte) 0x7F;
+        Files.write(catalogFile, corrupt);
+        assertNull(BinaryCatalog.loadIfFresh(catalogFile.toString(), moviesFile.toString(), usersFile.toString()));
+        assertNull(BinaryCatalog.load(catalogFile.toString()));
+    }
+
+    @Test
+    @DisplayName("An input edited after it was parsed leaves the catalog stale")
+    void testInputEditedBeforeCompile() throws Exception {
+        BinaryCatalog.Sources sources = BinaryCatalog.Sources.of(moviesFile.toString(), usersFile.toString());
+        FileHandler fileHandler = new FileHandler();
+        ArrayList<Movie> movies = fileHandler.readMovies(moviesFile.toString());
+        ArrayList<User> users = fileHandler.readUser(usersFile.toString());
+
+        Files.writeString(usersFile, "John Doe,123456789\nTDK123\n");
+        Files.setLastModifiedTime(usersFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        BinaryCatalog.compile(catalogFile.toString(), movies, users, sources);
+
+        assertTrue(Files.exists(catalogFile));
+        assertNull(BinaryCatalog.loadIfFresh(catalogFile.toString(), moviesFile.toString(), usersFile.toString()));
+        try (java.util.stream.Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(3, files.count());
+        }
+    }
+}
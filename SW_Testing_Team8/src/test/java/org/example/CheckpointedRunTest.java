@@ -0,0 +1,208 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointedRunTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String MOVIES = "The Dark Knight,TDK123\nAction,Thriller\n"
+            + "Inception,I456\nAction,SciFi\n"
+            + "The Notebook,TN789\nRomance\n";
+
+    private String users(int count) {
+        StringBuilder users = new StringBuilder();
+        String[] liked = {"TDK123", "TN789", "I456,TN789"};
+        for (int i = 0; i < count; i++) {
+            users.append("User Name,").append(100000000 + i).append('\n').append(liked[i % 3]).append('\n');
+        }
+        return users.toString();
+    }
+
+    private CheckpointedRun run(Path movies, Path users, Path output) {
+        CheckpointedRun run = new CheckpointedRun(movies.toString(), users.toString(),
+                tempDir.resolve("checkpoint.bin").toString());
+        run.setOutputPath(output.toString());
+        run.setCheckpointEvery(3);
+        return run;
+    }
+
+    // What the normal batch flow writes for the same inputs
+    private String expected(Path movies, Path users) throws Exception {
+        FileHandler fileHandler = new FileHandler();
+        var movieList = fileHandler.readMovies(movies.toString());
+        var userList = fileHandler.readUser(users.toString());
+        assertNull(MovieRecommendationApp.validateMovies(movieList, new MovieValidator()));
+        assertNull(MovieRecommendationApp.validateUsers(userList, new UserValidator(),
+                new org.Models.MovieIndex(movieList)));
+        new RecommendationEngine().recommendAll(userList, movieList, 1);
+        Path output = tempDir.resolve("expected.txt");
+        FileWriteHandler writer = new FileWriteHandler(userList);
+        writer.setFilePath(output.toString());
+        writer.write();
+        return Files.readString(output);
+    }
+
+    @Test
+    @DisplayName("An uninterrupted run writes the normal output and removes its checkpoint")
+    void testFullRun() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        Path users = Files.writeString(tempDir.resolve("users.txt"), users(10).stripTrailing());
+        Path output = tempDir.resolve("recommendations.txt");
+
+        CheckpointedRun run = run(movies, users, output);
+        run.run();
+
+        assertFalse(run.isResumed());
+        assertEquals(expected(movies, users), Files.readString(output));
+        assertFalse(Files.exists(tempDir.resolve("checkpoint.bin")));
+    }
+
+    @Test
+    @DisplayName("A restarted run resumes after the last checkpoint with the same final output")
+    void testResume() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        String good = users(10);
+        // record 8 cannot be parsed, the run stops there as if it had crashed
+        String broken = good.replace("User Name,100000007\n", "broken\n");
+        Path users = Files.writeString(tempDir.resolve("users.txt"), broken);
+        Path output = tempDir.resolve("recommendations.txt");
+
+        run(movies, users, output).run();
+        assertTrue(Files.exists(tempDir.resolve("checkpoint.bin")));
+        // output written after the checkpoint is dropped on resume
+        Files.writeString(output, "partial batch", StandardOpenOption.APPEND);
+
+        Files.writeString(users, good);
+        CheckpointedRun resumed = run(movies, users, output);
+        resumed.run();
+
+        assertTrue(resumed.isResumed());
+        assertEquals(expected(movies, users), Files.readString(output));
+        assertFalse(Files.exists(tempDir.resolve("checkpoint.bin")));
+    }
+
+    @Test
+    @DisplayName("Uniqueness state from before the checkpoint still catches duplicates")
+    void testResumeKeepsValidatorState() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        String good = users(10);
+        Path users = Files.writeString(tempDir.resolve("users.txt"), good.replace("User Name,100000007\n", "broken\n"));
+        Path output = tempDir.resolve("recommendations.txt");
+        run(movies, users, output).run();
+
+        // user 8 now repeats the ID of user 1, which was validated before the checkpoint
+        Files.writeString(users, good.replace("User Name,100000007\n", "User Name,100000001\n"));
+        CheckpointedRun resumed = run(movies, users, output);
+        resumed.run();
+
+        assertTrue(resumed.isResumed());
+        assertEquals("ERROR: User Id 100000001 is wrong", Files.readString(output));
+        assertFalse(Files.exists(tempDir.resolve("checkpoint.bin")));
+    }
+
+    @Test
+    @DisplayName("With compression the error replaces the compressed output")
+    void testCompressedError() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        Path users = Files.writeString(tempDir.resolve("users.txt"), users(4).replace("User Name,100000002", " Bad,100000002"));
+        Path output = tempDir.resolve("recommendations.txt");
+        Path compressed = tempDir.resolve("recommendations.txt.gz");
+        Files.writeString(compressed, "stale");
+        CheckpointedRun run = run(movies, users, output);
+        run.setCompressed(true);
+        run.run();
+
+        assertFalse(Files.exists(output));
+        try (java.io.InputStream in = new java.util.zip.GZIPInputStream(Files.newInputStream(compressed))) {
+            assertEquals("ERROR: User Name  Bad is wrong", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    @DisplayName("A checkpoint is ignored once the movies file changed")
+    void testChangedMoviesStartsOver() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        String good = users(10);
+        Path users = Files.writeString(tempDir.resolve("users.txt"), good.replace("User Name,100000007\n", "broken\n"));
+        Path output = tempDir.resolve("recommendations.txt");
+        run(movies, users, output).run();
+
+        Files.writeString(movies, MOVIES + "Mad Max,MM321\nAction\n");
+        Files.writeString(users, good);
+        CheckpointedRun restarted = run(movies, users, output);
+        restarted.run();
+
+        assertFalse(restarted.isResumed());
+        assertEquals(expected(movies, users), Files.readString(output));
+    }
+
+    @Test
+    @DisplayName("A checkpoint is ignored once the users before its offset changed")
+    void testChangedUsersPrefixStartsOver() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        String good = users(10);
+        Path users = Files.writeString(tempDir.resolve("users.txt"), good.replace("User Name,100000007\n", "broken\n"));
+        Path output = tempDir.resolve("recommendations.txt");
+        run(movies, users, output).run();
+
+        // a different file that is just as long as the checkpoint offset expects
+        String other = users(12).replace("User Name,", "Other Name,");
+        Files.writeString(users, other);
+        CheckpointedRun restarted = run(movies, users, output);
+        restarted.run();
+
+        assertFalse(restarted.isResumed());
+        assertEquals(expected(movies, users), Files.readString(output));
+        assertFalse(Files.exists(tempDir.resolve("checkpoint.bin.ids")));
+    }
+
+    @Test
+    @DisplayName("Each checkpoint only appends the IDs seen since the previous one")
+    void testJournalAppends() throws Exception {
+        Path journal = tempDir.resolve("checkpoint.bin.ids");
+        long first = CheckpointedRun.Checkpoint.appendJournal(journal, 0, List.of("TDK123"), List.of("100000000"));
+        byte[] before = Files.readAllBytes(journal);
+        long second = CheckpointedRun.Checkpoint.appendJournal(journal, first, List.of(), List.of("100000001"));
+
+        byte[] after = Files.readAllBytes(journal);
+        assertEquals(second, after.length);
+        assertArrayEquals(before, java.util.Arrays.copyOf(after, (int) first));
+        // bytes past the recorded length belong to an unfinished checkpoint and are replaced
+        Files.write(journal, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        assertEquals(second, CheckpointedRun.Checkpoint.appendJournal(journal, first, List.of(), List.of("100000001")));
+        assertEquals(second, Files.size(journal));
+    }
+
+    @Test
+    @DisplayName("A checkpoint file round-trips the recorded state")
+    void testCheckpointRoundTrip() throws Exception {
+        Path movies = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        Path users = Files.writeString(tempDir.resolve("users.txt"), users(4));
+        Path file = tempDir.resolve("checkpoint.bin");
+
+        long journal = CheckpointedRun.Checkpoint.appendJournal(CheckpointedRun.Checkpoint.journalPath(file), 0,
+                List.of("TDK123", "I456"), List.of("100000000"));
+        new CheckpointedRun.Checkpoint(movies.toString(), users.toString(), 42, 99, 17, 2, 1, journal).save(file);
+        CheckpointedRun.Checkpoint loaded = CheckpointedRun.Checkpoint.load(file);
+
+        assertEquals(42, loaded.usersOffset);
+        assertEquals(99, loaded.usersCrc);
+        assertEquals(17, loaded.outputLength);
+        assertEquals(List.of("TDK123", "I456"), loaded.movieIds);
+        assertEquals(List.of("100000000"), loaded.userIds);
+        assertTrue(loaded.matches(movies.toString(), users.toString()));
+        assertFalse(loaded.matches(movies.toString(), movies.toString()));
+        assertNull(CheckpointedRun.Checkpoint.load(tempDir.resolve("missing.bin")));
+    }
+}
@@ -0,0 +1,106 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String MOVIES = "The Dark Knight,TDK123\nAction,Thriller\n"
+            + "Inception,I456\nAction,SciFi\n";
+
+    private ConcurrentLoader loader() {
+        return new ConcurrentLoader(new ShardedInput(new FileHandler()));
+    }
+
+    private String load(ConcurrentLoader loader, String movies, String users) throws Exception {
+        Path moviesFile = Files.writeString(tempDir.resolve("movies.txt"), movies);
+        Path usersFile = Files.writeString(tempDir.resolve("users.txt"), users);
+        return loader.load(moviesFile.toString(), usersFile.toString(), new MovieValidator(), new UserValidator());
+    }
+
+    @Test
+    @DisplayName("Valid files load with users linked to the movies")
+    void testLoad() throws Exception {
+        ConcurrentLoader loader = loader();
+
+        assertNull(load(loader, MOVIES, "John Doe,123456789\nTDK123,I456\nJane Smith,987654321\nI456\n"));
+
+        assertEquals(2, loader.getMovies().size());
+        assertEquals(2, loader.getUsers().size());
+        assertSame(loader.getMovies().get(1), loader.getUsers().get(0).getLikedMovies().get(1));
+        assertSame(loader.getMovies().get(1), loader.getUsers().get(1).getLikedMovies().get(0));
+    }
+
+    @Test
+    @DisplayName("A movie error is reported before any user error")
+    void testMovieErrorFirst() throws Exception {
+        ConcurrentLoader loader = loader();
+
+        String error = load(loader, MOVIES.replace("Thriller", "Thr1ller"), " Bad User,1\nTDK123\n");
+
+        assertEquals("ERROR: Movie Genre Thr1ller is wrong", error);
+        assertNull(loader.getUsers());
+    }
+
+    @Test
+    @DisplayName("User errors are found once the users are joined")
+    void testUserError() throws Exception {
+        String error = load(loader(), MOVIES, "John Doe,123456789\nTDK123\nJane Smith,123456789\nI456\n");
+
+        assertEquals("ERROR: User Id 123456789 is wrong", error);
+    }
+
+    @Test
+    @DisplayName("A missing users file loads no users, as the sequential read does")
+    void testMissingUsersFile() throws Exception {
+        Path moviesFile = Files.writeString(tempDir.resolve("movies.txt"), MOVIES);
+        ConcurrentLoader loader = loader();
+
+        assertNull(loader.load(moviesFile.toString(), tempDir.resolve("missing.txt").toString(),
+                new MovieValidator(), new UserValidator()));
+
+        assertEquals(2, loader.getMovies().size());
+        assertTrue(loader.getUsers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("An interrupt while waiting for the users fails the load instead of loading no users")
+    void testInterrupted() throws Exception {
+        java.util.concurrent.CountDownLatch never = new java.util.concurrent.CountDownLatch(1);
+        ShardedInput input = new ShardedInput(new FileHandler()) {
+            @Override
+            public java.util.ArrayList<org.Models.User> readUsers(String users) {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new java.util.ArrayList<>();
+            }
+
+            @Override
+            public java.util.ArrayList<org.Models.Movie> readMovies(String movies) {
+                java.util.ArrayList<org.Models.Movie> result = super.readMovies(movies);
+                Thread.currentThread().interrupt();
+                return result;
+            }
+        };
+        ConcurrentLoader loader = new ConcurrentLoader(input);
+
+        try {
+            assertThrows(IllegalStateException.class, () -> load(loader, MOVIES, ""));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTokenizerTest {
+    private static final List<String> lines = List.of(
+            "The Dark Knight,TDK123", "Action,Thriller", "Drama", "", ",", ",,,", "Action,,Drama,,",
+            ",Action", "Amélie,AM001", "a,b,c,d,e,f,g,h,i,j,k,l,m,n,o,p,q,r,s,t");
+
+    private List<String> fields(CsvTokenizer tokenizer) {
+        ArrayList<String> fields = new ArrayList<>();
+        for (int i = 0; i < tokenizer.count(); i++) {
+            fields.add(tokenizer.field(i));
+        }
+        return fields;
+    }
+
+    @Test
+    @DisplayName("Fields over text match String.split")
+    void testTextMatchesSplit() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (String line : lines) {
+            assertEquals(Arrays.asList(line.split(",")), fields(tokenizer.reset(new StringBuilder(line))), line);
+        }
+    }
+
+    @Test
+    @DisplayName("Fields over UTF-8 bytes match String.split")
+    void testBytesMatchSplit() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (String line : lines) {
+            byte[] bytes = ("#" + line + "#").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer heap = ByteBuffer.wrap(bytes);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+
+            assertEquals(Arrays.asList(line.split(",")), fields(tokenizer.reset(heap, 1, bytes.length - 1)), line);
+            assertEquals(Arrays.asList(line.split(",")), fields(tokenizer.reset(direct, 1, bytes.length - 1)), line);
+        }
+    }
+
+    @Test
+    @DisplayName("Field offsets point into the line")
+    void testOffsets() {
+        CsvTokenizer tokenizer = new CsvTokenizer().reset("Mad Max,MM012");
+
+        assertEquals(2, tokenizer.count());
+        assertEquals(8, tokenizer.start(1));
+        assertEquals(13, tokenizer.end(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.field(2));
+    }
+
+    @Test
+    @DisplayName("Line reader splits lines like BufferedReader")
+    void testLineReader() throws Exception {
+        String content = "first\r\nsecond\rthird\n\nlast";
+        java.io.BufferedReader expected = new java.io.BufferedReader(new java.io.StringReader(content));
+        LineReader reader = new LineReader(new java.io.StringReader(content), 3);
+
+        String line;
+        while ((line = expected.readLine()) != null) {
+            assertEquals(line, reader.readLine().toString());
+        }
+        assertNull(reader.readLine());
+    }
+}
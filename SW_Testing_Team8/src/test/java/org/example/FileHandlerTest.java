@@ -205,4 +205,172 @@ class FileHandlerTest {
 
         new java.io.File(testMovieFilePath).delete();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Stream movies parses records on demand")
+    void testStreamMovies() throws Exception {
+        java.io.FileWriter writer = new java.io.FileWriter(testMovieFilePath);
+        writer.write("The Dark Knight,TDK123\n");
+        writer.write("Action,Thriller\n");
+        writer.write("Inception,INC456\n");
+        writer.write("Action,SciFi\n");
+        writer.close();
+
+        try (java.util.stream.Stream<Movie> movies = fileHandler.streamMovies(testMovieFilePath)) {
+            java.util.Iterator<Movie> iterator = movies.iterator();
+            Movie first = iterator.next();
+            assertEquals("The Dark Knight", first.getTitle());
+            assertEquals(2, first.getGenres().size());
+            assertEquals("INC456", iterator.next().getMovieID());
+            assertFalse(iterator.hasNext());
+        }
+
+        new java.io.File(testMovieFilePath).delete();
+    }
+
+    @Test
+    @DisplayName("Stream users matches readUser")
+    void testStreamUsers() throws Exception {
+        java.io.FileWriter writer = new java.io.FileWriter(testUserFilePath);
+        writer.write("John Doe,123456789\n");
+        writer.write("TDK123,INC456\n");
+        writer.write("Jane Smith,987654321\n");
+        writer.write("TG789\n");
+        writer.close();
+
+        java.util.List<String> ids;
+        try (java.util.stream.Stream<User> users = fileHandler.streamUsers(testUserFilePath)) {
+            ids = users.map(User::getId).toList();
+        }
+
+        assertEquals(java.util.List.of("123456789", "987654321"), ids);
+
+        new java.io.File(testUserFilePath).delete();
+    }
+
+    @Test
+    @DisplayName("Stream from non-existent file is empty")
+    void testStreamNonExistentFile() {
+        try (java.util.stream.Stream<User> users = fileHandler.streamUsers("non_existent_user_file.txt")) {
+            assertEquals(0, users.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Gzip inputs are read transparently by every reader")
+    void testReadCompressedInputs() throws Exception {
+        String moviesGz = testMovieFilePath + ".gz";
+        String usersGz = testUserFilePath + ".gz";
+        try (java.io.Writer writer = new java.io.OutputStreamWriter(
+                new java.util.zip.GZIPOutputStream(new java.io.FileOutputStream(moviesGz)))) {
+            writer.write("The Dark Knight,TDK123\nAction,Thriller\nInception,I456\nAction,SciFi\n");
+        }
+        try (java.io.Writer writer = new java.io.OutputStreamWriter(
+                new java.util.zip.GZIPOutputStream(new java.io.FileOutputStream(usersGz)))) {
+            writer.write("John Doe,123456789\nTDK123,I456\nJane Smith,987654321\nI456\n");
+        }
+
+        for (ArrayList<Movie> movies : java.util.List.of(fileHandler.readMovies(moviesGz),
+                fileHandler.readMoviesReadAhead(moviesGz), fileHandler.readMoviesMapped(moviesGz))) {
+            assertEquals(2, movies.size());
+            assertEquals("Inception", movies.get(1).getTitle());
+            assertEquals(java.util.List.of("Action", "SciFi"), movies.get(1).getGenres());
+        }
+        for (ArrayList<User> users : java.util.List.of(fileHandler.readUser(usersGz),
+                fileHandler.readUserReadAhead(usersGz), fileHandler.readUserParallel(usersGz))) {
+            assertEquals(2, users.size());
+            assertEquals("987654321", users.get(1).getId());
+            assertEquals(java.util.List.of("TDK123", "I456"), users.get(0).getLikedMoviesId());
+        }
+        try (java.util.stream.Stream<User> users = fileHandler.streamUsers(usersGz)) {
+            assertEquals(2, users.count());
+        }
+
+        new java.io.File(moviesGz).delete();
+        new java.io.File(usersGz).delete();
+    }
+
+    @Test
+    @DisplayName("Corrupt gzip input returns an empty list")
+    void testReadCorruptCompressedInput() throws Exception {
+        String moviesGz = testMovieFilePath + ".gz";
+        java.nio.file.Files.writeString(java.nio.file.Path.of(moviesGz), "not gzip data\n");
+
+        assertTrue(fileHandler.readMovies(moviesGz).isEmpty());
+
+        new java.io.File(moviesGz).delete();
+    }
+
+    // First error of the two-pass flow (parse everything, then validate), or null
+    private String twoPassError(String movies, String users) throws Exception {
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testMovieFilePath), movies);
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testUserFilePath), users);
+        ArrayList<Movie> parsed = fileHandler.readMovies(testMovieFilePath);
+        String error = MovieRecommendationApp.validateMovies(parsed, new MovieValidator());
+        if (error != null) return error;
+        return MovieRecommendationApp.validateUsers(fileHandler.readUser(testUserFilePath), new UserValidator(),
+                new org.Models.MovieIndex(parsed));
+    }
+
+    private String fusedError(String movies, String users) throws Exception {
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testMovieFilePath), movies);
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testUserFilePath), users);
+        MovieValidator movieValidator = new MovieValidator();
+        ArrayList<Movie> parsed = fileHandler.readMoviesValidated(testMovieFilePath, movieValidator);
+        if (parsed == null) return movieValidator.getExceptionHandler().getErrorLog().get(0);
+        UserValidator userValidator = new UserValidator();
+        ArrayList<User> users2 = fileHandler.readUsersValidated(testUserFilePath, userValidator,
+                new org.Models.MovieIndex(parsed));
+        return users2 == null ? userValidator.getExceptionHandler().getErrorLog().get(0) : null;
+    }
+
+    @Test
+    @DisplayName("Fused parse-and-validate reports the same first error as the two-pass flow")
+    void testFusedSameFirstError() throws Exception {
+        String goodMovies = "The Dark Knight,TDK123\nAction,Thriller\nInception,I456\nAction,SciFi\n";
+        String goodUsers = "John Doe,123456789\nTDK123,I456\nJane Smith,98765432X\nI456\n";
+        String[][] cases = {
+                {goodMovies, goodUsers},
+                {"the Dark Knight,TDK123\nAction\nInception,I456\nAction\n", goodUsers},
+                {"The Dark Knight,TDk123\nAction\n", goodUsers},
+                {"The Dark Knight,TDK123\nAction\nInception,I123\nAction\n", goodUsers},
+                {"The Dark Knight,TDK123\nAction,Sci-Fi\n", goodUsers},
+                {"The Dark Knight,TDK123\nAction,A\n", goodUsers},
+                {goodMovies, " John Doe,123456789\nTDK123\n"},
+                {goodMovies, "John Doe2,123456789\nTDK123\n"},
+                {goodMovies, "John Doe,12345678\nTDK123\n"},
+                {goodMovies, "John Doe,123456789\nTDK123\nJane Smith,123456789\nI456\n"},
+                {goodMovies, "John Doe,123456789\nXYZ999\n"},
+        };
+        for (String[] c : cases) {
+            assertEquals(twoPassError(c[0], c[1]), fusedError(c[0], c[1]), c[0] + " / " + c[1]);
+        }
+        assertNull(fusedError(goodMovies, goodUsers));
+
+        new java.io.File(testMovieFilePath).delete();
+        new java.io.File(testUserFilePath).delete();
+    }
+
+    @Test
+    @DisplayName("Fused readers build linked models when everything is valid")
+    void testFusedValidRecords() throws Exception {
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testMovieFilePath),
+                "The Dark Knight,TDK123\r\nAction,Thriller\r\nInception,I456\r\nAction,SciFi\r\n");
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testUserFilePath), "John Doe,123456789\nTDK123,I456\n");
+
+        MovieValidator movieValidator = new MovieValidator();
+        ArrayList<Movie> movies = fileHandler.readMoviesValidated(testMovieFilePath, movieValidator);
+        ArrayList<User> users = fileHandler.readUsersValidated(testUserFilePath, new UserValidator(),
+                new org.Models.MovieIndex(movies));
+
+        assertEquals(java.util.List.of("TDK123", "I456"), movieValidator.getId_list());
+        assertEquals("The Dark Knight", movies.get(0).getTitle());
+        assertEquals(java.util.List.of("Action", "SciFi"), movies.get(1).getGenres());
+        assertEquals(1, users.size());
+        assertEquals(2, users.get(0).getLikedMovies().size());
+        assertSame(movies.get(1), users.get(0).getLikedMovies().get(1));
+
+        new java.io.File(testMovieFilePath).delete();
+        new java.io.File(testUserFilePath).delete();
+    }
+}
@@ -204,4 +204,197 @@ class FileWriteHandlerTest {
 
         new java.io.File(testOutputFilePath).delete();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Streamed output keeps the exact file format")
+    void testStreamedOutputExactFormat() throws Exception {
+        User user1 = new User("John Doe", "123456789", new ArrayList<>());
+        user1.setRecMovies(new ArrayList<>(Arrays.asList("Inception", "Mad Max")));
+        User user2 = new User("Alice Johnson", "111111111", new ArrayList<>());
+        user2.setRecMovies(new ArrayList<>());
+        User user3 = new User("Jane Smith", "987654321", new ArrayList<>());
+        user3.setRecMovies(new ArrayList<>(Arrays.asList("The Godfather")));
+
+        ArrayList<User> users = new ArrayList<>(Arrays.asList(user1, user2, user3));
+        FileWriteHandler handler = new FileWriteHandler(users);
+        java.lang.reflect.Field field = FileWriteHandler.class.getDeclaredField("filePath");
+        field.setAccessible(true);
+        field.set(handler, testOutputFilePath);
+
+        handler.write();
+
+        String written = java.nio.file.Files.readString(java.nio.file.Path.of(testOutputFilePath));
+        assertEquals("John Doe, 123456789\nInception, Mad Max\n"
+                + "Alice Johnson, 111111111\n\n"
+                + "Jane Smith, 987654321\nThe Godfather\n", written);
+
+        new java.io.File(testOutputFilePath).delete();
+    }
+
+    @Test
+    @DisplayName("Error message is written as is")
+    void testWriteError() throws Exception {
+        FileWriteHandler handler = new FileWriteHandler("ERROR: No Liked Movies Entered");
+        java.lang.reflect.Field field = FileWriteHandler.class.getDeclaredField("filePath");
+        field.setAccessible(true);
+        field.set(handler, testOutputFilePath);
+
+        handler.write();
+
+        String written = java.nio.file.Files.readString(java.nio.file.Path.of(testOutputFilePath));
+        assertEquals("ERROR: No Liked Movies Entered", written);
+
+        new java.io.File(testOutputFilePath).delete();
+    }
+
+    @Test
+    @DisplayName("Compressed output gunzips to the plain output, appends add gzip members")
+    void testCompressedOutput() throws Exception {
+        User user1 = new User("John Doe", "123456789", new ArrayList<>());
+        user1.setRecMovies(new ArrayList<>(Arrays.asList("Inception", "Mad Max")));
+        User user2 = new User("Jane Smith", "987654321", new ArrayList<>());
+        user2.setRecMovies(new ArrayList<>(Arrays.asList("The Godfather")));
+
+        FileWriteHandler handler = new FileWriteHandler(new ArrayList<>(Arrays.asList(user1)));
+        handler.setFilePath(testOutputFilePath);
+        handler.setCompressed(true);
+        assertEquals(testOutputFilePath + ".gz", handler.getOutputPath());
+        handler.write();
+
+        FileWriteHandler appender = new FileWriteHandler(new ArrayList<>(Arrays.asList(user2)));
+        appender.setFilePath(testOutputFilePath);
+        appender.setCompressed(true);
+        appender.setAppend(true);
+        appender.write();
+
+        assertFalse(new java.io.File(testOutputFilePath).exists());
+        String written;
+        try (java.io.InputStream in = new java.util.zip.GZIPInputStream(
+                new java.io.FileInputStream(testOutputFilePath + ".gz"))) {
+            written = new String(in.readAllBytes());
+        }
+        assertEquals("John Doe, 123456789\nInception, Mad Max\n"
+                + "Jane Smith, 987654321\nThe Godfather\n", written);
+
+        new java.io.File(testOutputFilePath + ".gz").delete();
+    }
+
+    private ArrayList<User> manyUsers(int count) {
+        ArrayList<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User("User Number", String.format("%08d%c", i, 'A' + i % 26), new ArrayList<>());
+            user.setRecMovies(new ArrayList<>(i % 4 == 0 ? Arrays.asList() : Arrays.asList("Inception", "Mad Max")));
+            users.add(user);
+        }
+        return users;
+    }
+
+    @Test
+    @DisplayName("Partitions concatenate to the single file and the manifest matches them")
+    void testPartitionedOutput() throws Exception {
+        ArrayList<User> users = manyUsers(1001);
+        FileWriteHandler single = new FileWriteHandler(users);
+        single.setFilePath(testOutputFilePath);
+        single.write();
+
+        FileWriteHandler handler = new FileWriteHandler(users);
+        handler.setFilePath(testOutputFilePath + ".split");
+        handler.setPartitions(4);
+        handler.write();
+
+        java.io.ByteArrayOutputStream joined = new java.io.ByteArrayOutputStream();
+        java.util.List<String> manifest = java.nio.file.Files.readAllLines(java.nio.file.Path.of(handler.getManifestPath()));
+        assertEquals(4, manifest.size());
+        int records = 0;
+        for (int p = 0; p < 4; p++) {
+            java.nio.file.Path part = java.nio.file.Path.of(handler.getPartitionPath(p));
+            byte[] bytes = java.nio.file.Files.readAllBytes(part);
+            java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+            crc.update(bytes);
+            String[] entry = manifest.get(p).split(",");
+            assertEquals(part.getFileName().toString(), entry[0]);
+            assertEquals(bytes.length, Long.parseLong(entry[2]));
+            assertEquals(String.format("%08x", crc.getValue()), entry[3]);
+            records += Integer.parseInt(entry[1]);
+            joined.write(bytes);
+            part.toFile().delete();
+        }
+        assertEquals(users.size(), records);
+        assertEquals(java.nio.file.Files.readString(java.nio.file.Path.of(testOutputFilePath)), joined.toString());
+
+        new java.io.File(handler.getManifestPath()).delete();
+        new java.io.File(testOutputFilePath).delete();
+    }
+
+    @Test
+    @DisplayName("Compressed partitions gunzip as one stream when concatenated")
+    void testCompressedPartitions() throws Exception {
+        ArrayList<User> users = manyUsers(3);
+        FileWriteHandler handler = new FileWriteHandler(users);
+        handler.setFilePath(testOutputFilePath);
+        handler.setCompressed(true);
+        handler.setPartitions(5);
+        handler.write();
+
+        java.io.ByteArrayOutputStream joined = new java.io.ByteArrayOutputStream();
+        for (int p = 0; p < 5; p++) {
+            assertTrue(handler.getPartitionPath(p).endsWith(".gz"));
+            java.nio.file.Path part = java.nio.file.Path.of(handler.getPartitionPath(p));
+            joined.write(java.nio.file.Files.readAllBytes(part));
+            part.toFile().delete();
+        }
+        String written;
+        try (java.io.InputStream in = new java.util.zip.GZIPInputStream(
+                new java.io.ByteArrayInputStream(joined.toByteArray()))) {
+            written = new String(in.readAllBytes());
+        }
+        assertEquals("User Number, 00000000A\n\n"
+                + "User Number, 00000001B\nInception, Mad Max\n"
+                + "User Number, 00000002C\nInception, Mad Max\n", written);
+
+        new java.io.File(handler.getManifestPath()).delete();
+    }
+
+    @Test
+    @DisplayName("Fewer partitions than last time remove the part files left over")
+    void testStalePartitionsRemoved() throws Exception {
+        FileWriteHandler before = new FileWriteHandler(manyUsers(10));
+        before.setFilePath(testOutputFilePath);
+        before.setPartitions(5);
+        before.write();
+
+        FileWriteHandler handler = new FileWriteHandler(manyUsers(10));
+        handler.setFilePath(testOutputFilePath);
+        handler.setPartitions(2);
+        handler.write();
+
+        for (int p = 0; p < 5; p++) {
+            assertEquals(p < 2, new java.io.File(handler.getPartitionPath(p)).exists());
+        }
+        assertEquals(2, java.nio.file.Files.readAllLines(java.nio.file.Path.of(handler.getManifestPath())).size());
+
+        for (int p = 0; p < 2; p++) {
+            new java.io.File(handler.getPartitionPath(p)).delete();
+        }
+        new java.io.File(handler.getManifestPath()).delete();
+    }
+
+    @Test
+    @DisplayName("A write that fails part way keeps the previous output")
+    void testFailedWriteKeepsPreviousOutput() throws Exception {
+        java.nio.file.Files.writeString(java.nio.file.Path.of(testOutputFilePath), "previous run");
+        ArrayList<User> users = manyUsers(5000);
+        users.get(4000).setRecMovies(null);
+
+        FileWriteHandler handler = new FileWriteHandler(users);
+        handler.setFilePath(testOutputFilePath);
+        assertThrows(NullPointerException.class, handler::write);
+
+        assertEquals("previous run", java.nio.file.Files.readString(java.nio.file.Path.of(testOutputFilePath)));
+        try (java.util.stream.Stream<java.nio.file.Path> files = java.nio.file.Files.list(java.nio.file.Path.of("."))) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().startsWith("." + testOutputFilePath)));
+        }
+
+        new java.io.File(testOutputFilePath).delete();
+    }
+}
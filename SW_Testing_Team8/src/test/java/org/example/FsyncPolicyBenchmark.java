@@ -0,0 +1,73 @@
+package org.example;
+
+import org.Models.User;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Not a test (surefire only runs *Test classes): times writing the same output with every fsync policy,
+// next to the old in-place FileWriter. Arguments: [users] [rounds]
+public class FsyncPolicyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        ArrayList<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User("User Number", String.format("%08d%c", i, 'A' + i % 26), new ArrayList<>());
+            user.setRecMovies(new ArrayList<>(Arrays.asList("The Dark Knight", "Inception", "The Notebook")));
+            users.add(user);
+        }
+        FsyncPolicy[] policies = { FsyncPolicy.NONE, FsyncPolicy.ON_CLOSE,
+                FsyncPolicy.everyMegabytes(8), FsyncPolicy.everyMegabytes(1) };
+
+        Path dir = Files.createTempDirectory("fsync-benchmark");
+        Path output = dir.resolve("recommendations.txt");
+        try {
+            // first round warms up the JIT and the file cache and is not reported
+            for (int round = 0; round <= rounds; round++) {
+                long start = System.nanoTime();
+                try (Writer writer = new BufferedWriter(new FileWriter(output.toString()), 1 << 16)) {
+                    for (User user : users) {
+                        FileWriteHandler.writeUser(writer, user);
+                    }
+                }
+                report(round, "in place, no fsync", start, output);
+
+                for (FsyncPolicy policy : policies) {
+                    FileWriteHandler handler = new FileWriteHandler(users);
+                    handler.setFilePath(output.toString());
+                    handler.setFsyncPolicy(policy);
+                    start = System.nanoTime();
+                    try (FileWriteHandler.Output encoded = handler.openUsers()) {
+                        for (User user : users) {
+                            encoded.add(user);
+                        }
+                        encoded.commit();
+                    }
+                    report(round, "atomic, fsync " + policy, start, output);
+                }
+            }
+        }
+        finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void report(int round, String name, long start, Path output) throws Exception {
+        long nanos = System.nanoTime() - start;
+        if (round == 0) return;
+        double megabytes = Files.size(output) / (1024.0 * 1024.0);
+        System.out.printf("round %d  %-22s %8.1f ms  %8.1f MB/s%n", round, name, nanos / 1e6,
+                megabytes / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenreDictionaryTest {
+    private ArrayList<Movie> movies;
+
+    @BeforeEach
+    void setUp() {
+        movies = new ArrayList<>();
+        movies.add(new Movie("The Dark Knight", "TDK123", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("Inception", "INC456", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("The Godfather", "TG789", new ArrayList<>(List.of("Drama"))));
+        movies.add(new Movie("Mad Max", "MM012", new ArrayList<>(Arrays.asList("Action", "Drama"))));
+        movies.add(new Movie("The Conjuring", "TC345", new ArrayList<>(List.of("Horror"))));
+    }
+
+    @Test
+    @DisplayName("Genres get ordinals in order of first appearance")
+    void testOrdinals() {
+        GenreDictionary dictionary = new GenreDictionary(movies);
+
+        assertEquals(4, dictionary.size());
+        assertEquals(0, dictionary.ordinal("Action"));
+        assertEquals(2, dictionary.ordinal("Drama"));
+        assertEquals(-1, dictionary.ordinal("Comedy"));
+        assertEquals("Horror", dictionary.genre(3));
+    }
+
+    @Test
+    @DisplayName("Each movie's genres are a bitmask in the dictionary")
+    void testMovieMasks() {
+        GenreDictionary dictionary = new GenreDictionary(movies);
+
+        assertEquals(1, dictionary.words());
+        assertArrayEquals(new long[]{0b0011, 0b0011, 0b0100, 0b0101, 0b1000}, dictionary.getMasks());
+    }
+
+    @Test
+    @DisplayName("More than 64 genres spill into a second mask word")
+    void testWideMasks() {
+        ArrayList<Movie> wide = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            wide.add(new Movie("Movie " + i, "M" + i, new ArrayList<>(List.of("Genre" + i))));
+        }
+        GenreDictionary dictionary = new GenreDictionary(wide);
+
+        assertEquals(2, dictionary.words());
+        assertArrayEquals(new long[]{0, 1L << 5}, Arrays.copyOfRange(dictionary.getMasks(), 69 * 2, 70 * 2));
+        assertArrayEquals(new long[]{1L << 3, 0}, Arrays.copyOfRange(dictionary.getMasks(), 3 * 2, 4 * 2));
+    }
+
+    @Test
+    @DisplayName("Bitmask engine gives the same recommendations as the full scan")
+    void testBitmaskEngineMatchesScan() {
+        RecommendationEngine scan = new RecommendationEngine();
+        RecommendationEngine bitmask = new RecommendationEngine(new GenreDictionary(movies));
+
+        List<List<String>> likedLists = List.of(
+                List.of("TDK123"), List.of("TG789", "TDK123"), List.of("TC345", "MM012"), List.of("TC345"));
+        for (List<String> liked : likedLists) {
+            User expected = new User("John Doe", "123456789", new ArrayList<>(liked));
+            expected.setLikedMovies(movies);
+            scan.GetRecommendations(expected, movies);
+
+            User actual = new User("John Doe", "123456789", new ArrayList<>(liked));
+            actual.setLikedMovies(movies);
+            bitmask.GetRecommendations(actual, movies);
+
+            assertEquals(expected.getRecMovies(), actual.getRecMovies());
+        }
+    }
+}
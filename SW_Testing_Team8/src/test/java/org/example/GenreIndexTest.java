@@ -0,0 +1,82 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenreIndexTest {
+    private ArrayList<Movie> movies;
+
+    @BeforeEach
+    void setUp() {
+        movies = new ArrayList<>();
+        movies.add(new Movie("The Dark Knight", "TDK123", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("Inception", "INC456", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("The Godfather", "TG789", new ArrayList<>(List.of("Drama"))));
+        movies.add(new Movie("Mad Max", "MM012", new ArrayList<>(Arrays.asList("Action", "Drama", "Action"))));
+        movies.add(new Movie("The Conjuring", "TC345", new ArrayList<>(List.of("Horror"))));
+        movies.add(new Movie("Inception", "INC999", new ArrayList<>(List.of("Drama"))));
+    }
+
+    @Test
+    @DisplayName("Postings list every movie of a genre once, in catalog order")
+    void testPostings() {
+        GenreIndex index = new GenreIndex(movies);
+
+        assertArrayEquals(new int[]{0, 1, 3}, index.getPostings("Action"));
+        assertArrayEquals(new int[]{2, 3, 5}, index.getPostings("Drama"));
+        assertArrayEquals(new int[0], index.getPostings("Comedy"));
+        assertEquals(4, index.genreCount());
+    }
+
+    @Test
+    @DisplayName("Matching unions the postings of all genres of a movie")
+    void testMatching() {
+        GenreIndex index = new GenreIndex(movies);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 5}, index.matching(movies.get(3)));
+        assertArrayEquals(new int[]{4}, index.matching(movies.get(4)));
+    }
+
+    @Test
+    @DisplayName("Indexed engine gives the same recommendations as the full scan")
+    void testIndexedEngineMatchesScan() {
+        RecommendationEngine scan = new RecommendationEngine();
+        RecommendationEngine indexed = new RecommendationEngine(new GenreIndex(movies));
+
+        List<List<String>> likedLists = List.of(
+                List.of("TDK123"), List.of("TG789", "TDK123"), List.of("TC345", "MM012"), List.of("INC999"));
+        for (List<String> liked : likedLists) {
+            User expected = new User("John Doe", "123456789", new ArrayList<>(liked));
+            expected.setLikedMovies(movies);
+            scan.GetRecommendations(expected, movies);
+
+            User actual = new User("John Doe", "123456789", new ArrayList<>(liked));
+            actual.setLikedMovies(movies);
+            indexed.GetRecommendations(actual, movies);
+
+            assertEquals(expected.getRecMovies(), actual.getRecMovies());
+        }
+    }
+
+    @Test
+    @DisplayName("Engine falls back to the full scan for a different catalog")
+    void testIndexedEngineOtherCatalog() {
+        RecommendationEngine indexed = new RecommendationEngine(new GenreIndex(movies));
+        ArrayList<Movie> other = new ArrayList<>(movies.subList(0, 2));
+
+        User user = new User("John Doe", "123456789", new ArrayList<>(List.of("TDK123")));
+        user.setLikedMovies(other);
+        indexed.GetRecommendations(user, other);
+
+        assertEquals(List.of("The Dark Knight", "Inception"), user.getRecMovies());
+    }
+}
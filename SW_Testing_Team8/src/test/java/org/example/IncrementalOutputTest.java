@@ -0,0 +1,138 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalOutputTest {
+
+    @TempDir
+    Path tempDir;
+
+    // titles of the same length, so switching between them keeps record lengths
+    private ArrayList<Movie> catalog() {
+        ArrayList<Movie> movies = new ArrayList<>();
+        movies.add(new Movie("Movie Alpha", "MA001", new ArrayList<>(Arrays.asList("Action"))));
+        movies.add(new Movie("Movie Bravo", "MB002", new ArrayList<>(Arrays.asList("Drama"))));
+        movies.add(new Movie("Movie Delta", "MD003", new ArrayList<>(Arrays.asList("Action", "Drama"))));
+        return movies;
+    }
+
+    private User user(String name, String id, String liked, ArrayList<Movie> movies) {
+        User user = new User(name, id, new ArrayList<>(Arrays.asList(liked)));
+        user.setLikedMovies(movies);
+        return user;
+    }
+
+    private ArrayList<User> users(ArrayList<Movie> movies) {
+        ArrayList<User> users = new ArrayList<>();
+        users.add(user("John Doe", "123456789", "MA001", movies));
+        users.add(user("Jane Smith", "98765432A", "MB002", movies));
+        users.add(user("Bob Stone", "55555555B", "MA001", movies));
+        return users;
+    }
+
+    private IncrementalOutput run(ArrayList<User> users, ArrayList<Movie> movies) throws Exception {
+        FileWriteHandler handler = new FileWriteHandler(users);
+        handler.setFilePath(tempDir.resolve("recommendations.txt").toString());
+        IncrementalOutput incremental = new IncrementalOutput(handler, movies,
+                new RecommendationEngine(new GenreIndex(movies)), tempDir.resolve("index.bin"));
+        incremental.setThreads(2);
+        incremental.run();
+        return incremental;
+    }
+
+    private String fullOutput(ArrayList<User> users, ArrayList<Movie> movies) throws Exception {
+        new RecommendationEngine(new GenreIndex(movies)).recommendAll(users, movies, 1);
+        FileWriteHandler handler = new FileWriteHandler(users);
+        Path expected = tempDir.resolve("expected.txt");
+        handler.setFilePath(expected.toString());
+        handler.write();
+        return Files.readString(expected);
+    }
+
+    private String output() throws Exception {
+        return Files.readString(tempDir.resolve("recommendations.txt"));
+    }
+
+    @Test
+    @DisplayName("A second run with the same inputs recomputes and writes nothing")
+    void testUnchanged() throws Exception {
+        ArrayList<Movie> movies = catalog();
+        IncrementalOutput first = run(users(movies), movies);
+        assertEquals("full", first.getMode());
+        assertEquals(3, first.getRecomputed());
+
+        IncrementalOutput second = run(users(movies), movies);
+        assertEquals("unchanged", second.getMode());
+        assertEquals(0, second.getRecomputed());
+        assertEquals(0, second.getRewritten());
+        assertEquals(fullOutput(users(movies), movies), output());
+    }
+
+    @Test
+    @DisplayName("A changed record of the same length is overwritten in place and new users are appended")
+    void testInPlace() throws Exception {
+        ArrayList<Movie> movies = catalog();
+        run(users(movies), movies);
+
+        ArrayList<User> users = users(movies);
+        users.set(1, user("Jane Smith", "98765432A", "MA001", movies));
+        users.add(user("Ann Lee", "44444444C", "MB002", movies));
+        IncrementalOutput incremental = run(users, movies);
+
+        assertEquals("in place", incremental.getMode());
+        assertEquals(2, incremental.getRecomputed());
+        assertEquals(2, incremental.getRewritten());
+        assertEquals(fullOutput(users(movies), movies).length()
+                + "Ann Lee, 44444444C\nMovie Bravo, Movie Delta\n".length(), output().length());
+        ArrayList<User> expected = users(movies);
+        expected.set(1, user("Jane Smith", "98765432A", "MA001", movies));
+        expected.add(user("Ann Lee", "44444444C", "MB002", movies));
+        assertEquals(fullOutput(expected, movies), output());
+    }
+
+    @Test
+    @DisplayName("Reordered users and longer records rewrite the file from kept and new records")
+    void testFullRewrite() throws Exception {
+        ArrayList<Movie> movies = catalog();
+        run(users(movies), movies);
+
+        ArrayList<User> users = users(movies);
+        User moved = users.remove(0);
+        users.add(moved);
+        users.set(0, user("Jane Smith-Jones", "98765432A", "MB002", movies));
+        IncrementalOutput incremental = run(users, movies);
+
+        assertEquals("full", incremental.getMode());
+        assertEquals(1, incremental.getRecomputed());
+        assertEquals(1, incremental.getRewritten());
+        ArrayList<User> expected = users(movies);
+        expected.add(expected.remove(0));
+        expected.set(0, user("Jane Smith-Jones", "98765432A", "MB002", movies));
+        assertEquals(fullOutput(expected, movies), output());
+    }
+
+    @Test
+    @DisplayName("An output written by someone else since is not trusted")
+    void testOutputChangedOutside() throws Exception {
+        ArrayList<Movie> movies = catalog();
+        run(users(movies), movies);
+        Files.writeString(tempDir.resolve("recommendations.txt"), "ERROR: Movie Title movie alpha is wrong");
+
+        IncrementalOutput incremental = run(users(movies), movies);
+
+        assertEquals("full", incremental.getMode());
+        assertEquals(3, incremental.getRecomputed());
+        assertEquals(fullOutput(users(movies), movies), output());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import org.Models.Movie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedMovieReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void assertSameMovies(ArrayList<Movie> expected, ArrayList<Movie> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTitle(), actual.get(i).getTitle());
+            assertEquals(expected.get(i).getMovieID(), actual.get(i).getMovieID());
+            assertEquals(expected.get(i).getGenres(), actual.get(i).getGenres());
+        }
+    }
+
+    @Test
+    @DisplayName("Mapped reader returns the same movies as readMovies")
+    void testSameAsReadMovies() throws Exception {
+        Path file = tempDir.resolve("movies.txt");
+        Files.writeString(file, "The Dark Knight,TDK123\nAction,Thriller\n"
+                + "Mad Max,MM012,extra\nAction,,Drama,,\n"
+                + "Amélie,AM001\nRomance\n");
+
+        FileHandler fileHandler = new FileHandler();
+        ArrayList<Movie> movies = fileHandler.readMoviesMapped(file.toString());
+
+        assertSameMovies(fileHandler.readMovies(file.toString()), movies);
+        assertEquals(List.of("Action", "", "Drama"), movies.get(1).getGenres());
+        assertEquals("Amélie", movies.get(2).getTitle());
+    }
+
+    @Test
+    @DisplayName("Records crossing mapping windows are read whole")
+    void testSmallWindows() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("Movie ").append(i).append(",MOV").append(100 + i).append("\r\n");
+            content.append("Action,Drama\r\n");
+        }
+        Path file = tempDir.resolve("movies.txt");
+        Files.writeString(file, content.toString());
+
+        ArrayList<Movie> movies = new MappedMovieReader(64).readMovies(file.toString());
+
+        assertSameMovies(new FileHandler().readMovies(file.toString()), movies);
+        assertEquals(200, movies.size());
+    }
+
+    @Test
+    @DisplayName("Last line without a line break is read")
+    void testNoTrailingNewline() throws Exception {
+        Path file = tempDir.resolve("movies.txt");
+        Files.writeString(file, "The Godfather,TG789\nDrama");
+
+        ArrayList<Movie> movies = new MappedMovieReader().readMovies(file.toString());
+
+        assertEquals(1, movies.size());
+        assertEquals(List.of("Drama"), movies.get(0).getGenres());
+    }
+
+    @Test
+    @DisplayName("Mapped reader on a missing file returns an empty list")
+    void testMissingFile() {
+        ArrayList<Movie> movies = new MappedMovieReader().readMovies(tempDir.resolve("missing.txt").toString());
+
+        assertNotNull(movies);
+        assertEquals(0, movies.size());
+    }
+}
@@ -115,6 +115,39 @@ class MovieValidatorTest {
     // Test failed in the previous version.
     // Test fixed
 
+    @Test
+    @DisplayName("Digits added through getId_list are seen by the uniqueness check")
+    void testUniqueDigitsAfterAdd() {
+        assertTrue(validator.checkUnique3Digits("MAT789"));
+        validator.getId_list().add("MAT789");
+        assertFalse(validator.checkUnique3Digits("XYZ789"));
+        assertEquals("ERROR: Movie Id numbers XYZ789 aren’t unique", validator.getExceptionHandler().getErrorLog().get(0));
+    }
+
+    @Test
+    @DisplayName("Digits the caller adds to a list it set are seen by the uniqueness check")
+    void testUniqueDigitsAfterAddToSetList() {
+        List<String> idList = new ArrayList<>();
+        idList.add("TDK123");
+        validator.setId_list(idList);
+        idList.add("MAT789");
+        assertFalse(validator.checkUnique3Digits("XYZ789"));
+        assertTrue(validator.checkUnique3Digits("XYZ456"));
+    }
+
+    @Test
+    @DisplayName("Digits removed from the list can be reused")
+    void testUniqueDigitsAfterRemove() {
+        setupIdList();
+        validator.getId_list().add("ABC123");
+        validator.getId_list().remove("TDK123");
+        assertFalse(validator.checkUnique3Digits("JKL123"));
+        validator.getId_list().remove("ABC123");
+        assertTrue(validator.checkUnique3Digits("JKL123"));
+        validator.getId_list().clear();
+        assertTrue(validator.checkUnique3Digits("JKL456"));
+    }
+
 
     // Full Movie ID Tests
     @Test
@@ -173,4 +206,18 @@ class MovieValidatorTest {
     void testInvalidMovieGenreWithSpaces() {
         assertFalse(validator.validateMovieGenre("Action Movie"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Range overloads validate a field inside a line")
+    void testRangeOverloads() {
+        StringBuilder line = new StringBuilder("Inception,the Matrix,Action,Sci-Fi");
+        assertTrue(validator.validateMovieTitle(line, 0, 9));
+        assertTrue(validator.validateMovieGenre(line, 21, 27));
+        assertTrue(validator.getExceptionHandler().getErrorLog().isEmpty());
+
+        assertFalse(validator.validateMovieTitle(line, 10, 20));
+        assertEquals("ERROR: Movie Title the Matrix is wrong", validator.getExceptionHandler().getErrorLog().get(0));
+        assertFalse(validator.validateMovieGenre(line, 28, 34));
+        assertEquals("ERROR: Movie Genre Sci-Fi is wrong", validator.getExceptionHandler().getErrorLog().get(1));
+    }
+}
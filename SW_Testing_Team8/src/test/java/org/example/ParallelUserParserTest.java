@@ -0,0 +1,100 @@
+package org.example;
+
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelUserParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void assertSameUsers(ArrayList<User> expected, ArrayList<User> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+        }
+    }
+
+    private Path writeUsers(int count, String lineBreak) throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            content.append("User Number").append(i % 7 == 0 ? " Long Name" : "").append(',')
+                    .append(100000000 + i).append(lineBreak);
+            content.append("TDK123");
+            for (int j = 0; j < i % 4; j++) {
+                content.append(",MOV").append(100 + j);
+            }
+            content.append(lineBreak);
+        }
+        Path file = tempDir.resolve("users.txt");
+        Files.writeString(file, content.toString());
+        return file;
+    }
+
+    @Test
+    @DisplayName("Parallel parse returns the users of readUser in file order")
+    void testSameAsReadUser() throws Exception {
+        Path file = writeUsers(1000, "\n");
+        FileHandler fileHandler = new FileHandler();
+
+        ArrayList<User> users = new ParallelUserParser(fileHandler, 4, 97).readUser(file.toString());
+
+        assertSameUsers(fileHandler.readUser(file.toString()), users);
+    }
+
+    @Test
+    @DisplayName("Chunks realign to records with Windows line breaks")
+    void testWindowsLineBreaks() throws Exception {
+        Path file = writeUsers(300, "\r\n");
+        FileHandler fileHandler = new FileHandler();
+
+        for (long chunk : new long[]{1, 2, 31, 64, 4096}) {
+            ArrayList<User> users = new ParallelUserParser(fileHandler, 3, chunk).readUser(file.toString());
+            assertSameUsers(fileHandler.readUser(file.toString()), users);
+        }
+    }
+
+    @Test
+    @DisplayName("Empty and missing files give no users")
+    void testEmptyAndMissing() throws Exception {
+        Path empty = tempDir.resolve("empty.txt");
+        Files.writeString(empty, "");
+        FileHandler fileHandler = new FileHandler();
+
+        assertEquals(0, fileHandler.readUserParallel(empty.toString()).size());
+        assertEquals(0, fileHandler.readUserParallel(tempDir.resolve("missing.txt").toString()).size());
+    }
+
+    @Test
+    @DisplayName("A malformed record fails the parse instead of dropping users")
+    void testMalformedRecord() throws Exception {
+        Path file = tempDir.resolve("users.txt");
+        Files.writeString(file, "John Doe,123456789\nTDK123\nJane Smith 987654321\nI456\nCarl Stone,111111111\nI456\n");
+        FileHandler fileHandler = new FileHandler();
+
+        for (long chunk : new long[]{1, 16, 4096}) {
+            ParallelUserParser parser = new ParallelUserParser(fileHandler, 3, chunk);
+            assertThrows(IndexOutOfBoundsException.class, () -> parser.readUser(file.toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("A record cut off after its first line fails the parse")
+    void testTruncatedRecord() throws Exception {
+        Path file = tempDir.resolve("users.txt");
+        Files.writeString(file, "John Doe,123456789\nTDK123\nJane Smith,987654321\n");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new ParallelUserParser(new FileHandler(), 2, 8).readUser(file.toString()));
+        assertInstanceOf(java.io.IOException.class, e.getCause());
+    }
+}
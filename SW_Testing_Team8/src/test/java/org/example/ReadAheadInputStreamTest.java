@@ -0,0 +1,160 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadAheadInputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] sample(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + 7);
+        }
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("Bytes come out exactly as the source produced them")
+    void testSameBytes() throws Exception {
+        byte[] bytes = sample(100000);
+        for (int bufferSize : new int[]{1, 7, 4096, 1 << 20}) {
+            try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(bytes), bufferSize, 3)) {
+                assertArrayEquals(bytes, in.readAllBytes());
+                assertEquals(-1, in.read());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Single byte reads mix with bulk reads")
+    void testSingleByteReads() throws Exception {
+        byte[] bytes = sample(50);
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(bytes), 8, 2)) {
+            assertEquals(bytes[0] & 0xFF, in.read());
+            byte[] rest = new byte[49];
+            int read = 0;
+            while (read < rest.length) {
+                read += in.read(rest, read, rest.length - read);
+            }
+            assertEquals(bytes[49], rest[48]);
+            assertEquals(-1, in.read(rest, 0, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Reader thread stops once the buffer pool is full")
+    void testBackpressure() throws Exception {
+        AtomicLong produced = new AtomicLong();
+        AtomicReference<Thread> reader = new AtomicReference<>();
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                reader.compareAndSet(null, Thread.currentThread());
+                produced.incrementAndGet();
+                return 'x';
+            }
+        };
+        try (ReadAheadInputStream in = new ReadAheadInputStream(endless, 1024, 2)) {
+            awaitParked(reader, produced, 2 * 1024);
+
+            in.readNBytes(1024);
+            // the consumed buffer goes back to the pool once the next one is needed
+            in.read();
+            awaitParked(reader, produced, 3 * 1024);
+        }
+    }
+
+    // Polls until the reader thread has produced `expected` bytes and is parked waiting for a free buffer;
+    // once it is parked the count cannot move, so it is checked exactly
+    private static void awaitParked(AtomicReference<Thread> reader, AtomicLong produced, long expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Thread thread = reader.get();
+            if (thread != null && produced.get() >= expected && thread.getState() == Thread.State.WAITING) break;
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, reader.get().getState());
+        assertEquals(expected, produced.get());
+    }
+
+    @Test
+    @DisplayName("A read failure reaches the consumer after the bytes before it")
+    void testFailurePropagated() throws Exception {
+        InputStream failing = new InputStream() {
+            int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count == 10) throw new IOException("disk error");
+                return count++;
+            }
+        };
+        try (ReadAheadInputStream in = new ReadAheadInputStream(failing, 4, 2)) {
+            for (int i = 0; i < 8; i++) {
+                assertEquals(i, in.read());
+            }
+            IOException e = assertThrows(IOException.class, () -> in.readNBytes(10));
+            assertEquals("disk error", e.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Read-ahead readers return the records of readMovies and readUser")
+    void testFileHandlerReadAhead() throws Exception {
+        StringBuilder movies = new StringBuilder();
+        StringBuilder users = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            movies.append("Movie Title ").append(i).append(",MT").append(100 + i % 900).append("\r\n")
+                    .append("Action,Drama").append(i % 3 == 0 ? ",Comedy" : "").append('\n');
+            users.append("User Name,").append(100000000 + i).append('\n')
+                    .append("MT").append(100 + i % 900).append(",MT101\n");
+        }
+        Path moviesFile = tempDir.resolve("movies.txt");
+        Path usersFile = tempDir.resolve("users.txt");
+        Files.writeString(moviesFile, movies.toString());
+        Files.writeString(usersFile, users.toString());
+        FileHandler fileHandler = new FileHandler();
+
+        ArrayList<Movie> expectedMovies = fileHandler.readMovies(moviesFile.toString());
+        ArrayList<Movie> actualMovies = fileHandler.readMoviesReadAhead(moviesFile.toString());
+        assertEquals(expectedMovies.size(), actualMovies.size());
+        for (int i = 0; i < expectedMovies.size(); i++) {
+            assertEquals(expectedMovies.get(i).getTitle(), actualMovies.get(i).getTitle());
+            assertEquals(expectedMovies.get(i).getMovieID(), actualMovies.get(i).getMovieID());
+            assertEquals(expectedMovies.get(i).getGenres(), actualMovies.get(i).getGenres());
+        }
+
+        ArrayList<User> expectedUsers = fileHandler.readUser(usersFile.toString());
+        ArrayList<User> actualUsers = fileHandler.readUserReadAhead(usersFile.toString());
+        assertEquals(expectedUsers.size(), actualUsers.size());
+        for (int i = 0; i < expectedUsers.size(); i++) {
+            assertEquals(expectedUsers.get(i).getId(), actualUsers.get(i).getId());
+            assertEquals(expectedUsers.get(i).getLikedMoviesId(), actualUsers.get(i).getLikedMoviesId());
+        }
+    }
+
+    @Test
+    @DisplayName("Read-ahead of a missing file returns an empty list")
+    void testReadAheadMissingFile() {
+        assertTrue(new FileHandler().readMoviesReadAhead("non_existent_movie_file.txt").isEmpty());
+    }
+}
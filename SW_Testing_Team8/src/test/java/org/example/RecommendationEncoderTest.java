@@ -0,0 +1,97 @@
+package org.example;
+
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationEncoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ArrayList<User> users() {
+        ArrayList<User> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            User user = new User(i % 7 == 0 ? "Zoë Ångström" : "John Doe", String.format("%08d%c", i, 'A' + i % 26),
+                    new ArrayList<>());
+            user.setRecMovies(new ArrayList<>(i % 5 == 0 ? Arrays.asList()
+                    : Arrays.asList("Amélie", "The Dark Knight", "千と千尋の神隠し", "Inception")));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private byte[] written(ArrayList<User> users, Charset charset) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, charset)) {
+            for (User user : users) {
+                FileWriteHandler.writeUser(writer, user);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] encoded(ArrayList<User> users, Charset charset, int buffers, int bufferSize) throws Exception {
+        Path file = tempDir.resolve("encoded-" + charset.name() + "-" + bufferSize + ".txt");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             RecommendationEncoder encoder = new RecommendationEncoder(channel, charset, buffers, bufferSize)) {
+            for (User user : users) {
+                encoder.encode(user);
+            }
+            encoder.flush();
+        }
+        return Files.readAllBytes(file);
+    }
+
+    @Test
+    @DisplayName("Encoded bytes match the writer output, also across many small buffers")
+    void testMatchesWriter() throws Exception {
+        ArrayList<User> users = users();
+        for (Charset charset : Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16LE)) {
+            byte[] expected = written(users, charset);
+            assertArrayEquals(expected, encoded(users, charset, 4, 1 << 16));
+            assertArrayEquals(expected, encoded(users, charset, 3, 16));
+            assertArrayEquals(expected, encoded(users, charset, 1, 17));
+        }
+    }
+
+    @Test
+    @DisplayName("Missing names are written like the writer does")
+    void testNullName() throws Exception {
+        ArrayList<User> users = new ArrayList<>();
+        User user = new User(null, "123456789", new ArrayList<>());
+        user.setRecMovies(new ArrayList<>(Arrays.asList("Inception")));
+        users.add(user);
+
+        assertEquals("null, 123456789\nInception\n",
+                new String(encoded(users, StandardCharsets.UTF_8, 2, 64), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Nothing is written before flush")
+    void testNothingBeforeFlush() throws Exception {
+        Path file = tempDir.resolve("unflushed.txt");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             RecommendationEncoder encoder = new RecommendationEncoder(channel)) {
+            encoder.encode(users().get(1));
+        }
+        assertEquals(0, Files.size(file));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecommendationEncoder(null, StandardCharsets.UTF_8, 1, 8));
+    }
+}
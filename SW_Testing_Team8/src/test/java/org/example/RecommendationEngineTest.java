@@ -108,4 +108,42 @@ class RecommendationEngineTest {
         assertTrue(recommendations.contains("Inception"));
         assertTrue(recommendations.contains("The Godfather"));
     }
+
+    @Test
+    @DisplayName("Batch recommendation across threads matches the sequential run")
+    void testRecommendAllMatchesSequential() {
+        ArrayList<User> sequential = new ArrayList<>();
+        ArrayList<User> parallel = new ArrayList<>();
+        String[] ids = {"TDK123", "INC456", "TG789", "MM012", "TC345"};
+        for (int i = 0; i < 2000; i++) {
+            ArrayList<String> likedMoviesId = new ArrayList<>(List.of(ids[i % ids.length], ids[(i / 5) % ids.length]));
+            User a = new User("User", String.valueOf(100000000 + i), likedMoviesId);
+            User b = new User("User", String.valueOf(100000000 + i), new ArrayList<>(likedMoviesId));
+            a.setLikedMovies(movies);
+            b.setLikedMovies(movies);
+            sequential.add(a);
+            parallel.add(b);
+        }
+
+        for (User u : sequential) {
+            engine.GetRecommendations(u, movies);
+        }
+        engine.recommendAll(parallel, movies, 4);
+
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getRecMovies(), parallel.get(i).getRecMovies());
+        }
+    }
+
+    @Test
+    @DisplayName("Batch recommendation with a single thread")
+    void testRecommendAllSingleThread() {
+        user = new User("John Doe", "123456789", new ArrayList<>(List.of("TG789")));
+        user.setLikedMovies(movies);
+        ArrayList<User> users = new ArrayList<>(List.of(user));
+
+        engine.recommendAll(users, movies, 1);
+
+        assertEquals(List.of("The Godfather", "Mad Max"), user.getRecMovies());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.MovieIndex;
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedInputTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path shard(String name, String content) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private List<String> ids(ArrayList<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    @Test
+    @DisplayName("A directory of shards is merged in file name order")
+    void testDirectory() throws Exception {
+        shard("users/part-2.txt", "Carl Stone,300000000\nI456\n");
+        shard("users/part-1.txt", "John Doe,100000000\nTDK123\nJane Smith,200000000\nI456\n");
+        shard("users/.part-0.txt.swp", "ignored");
+        ShardedInput input = new ShardedInput(new FileHandler(), 2);
+
+        ArrayList<User> users = input.readUsers(tempDir.resolve("users").toString());
+
+        assertEquals(List.of("100000000", "200000000", "300000000"), ids(users));
+        assertTrue(ShardedInput.isSharded(tempDir.resolve("users").toString()));
+    }
+
+    @Test
+    @DisplayName("A glob selects the matching shards only")
+    void testGlob() throws Exception {
+        shard("movies-b.txt", "Inception,I456\nAction,SciFi\n");
+        shard("movies-a.txt", "The Dark Knight,TDK123\nAction,Thriller\n");
+        shard("users.txt", "John Doe,100000000\nTDK123\n");
+        String glob = tempDir.resolve("movies-*.txt").toString();
+
+        assertEquals(2, ShardedInput.resolve(glob).size());
+        ArrayList<Movie> movies = new ShardedInput(new FileHandler()).readMovies(glob);
+
+        assertEquals(List.of("TDK123", "I456"), movies.stream().map(Movie::getMovieID).toList());
+        assertTrue(ShardedInput.isSharded(glob));
+    }
+
+    @Test
+    @DisplayName("A plain file is a single shard")
+    void testSingleFile() throws Exception {
+        Path file = shard("users.txt", "John Doe,100000000\nTDK123\n");
+
+        assertEquals(List.of(file), ShardedInput.resolve(file.toString()));
+        assertFalse(ShardedInput.isSharded(file.toString()));
+        assertEquals(List.of("100000000"), ids(new ShardedInput(new FileHandler()).readUsers(file.toString())));
+    }
+
+    @Test
+    @DisplayName("A glob without matches reads nothing")
+    void testNoMatches() {
+        assertTrue(new ShardedInput(new FileHandler()).readUsers(tempDir.resolve("none-*.txt").toString()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A shard that fails to read fails the whole read")
+    void testFailingShard() throws Exception {
+        shard("users/a.txt", "John Doe,100000000\nTDK123\n");
+        shard("users/b.txt", "Jane Smith,200000000\nTDK123\n");
+        FileHandler failing = new FileHandler() {
+            @Override
+            ArrayList<User> readUserShard(String filePathUser) {
+                if (filePathUser.endsWith("b.txt")) throw new IllegalStateException("disk gone");
+                return super.readUserShard(filePathUser);
+            }
+        };
+        ShardedInput input = new ShardedInput(failing, 2);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> input.readUsers(tempDir.resolve("users").toString()));
+        assertEquals("disk gone", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("A shard that cannot be read to its end fails the read instead of losing its records")
+    void testTruncatedShard() throws Exception {
+        shard("users/a.txt", "John Doe,100000000\nTDK123\n");
+        java.io.ByteArrayOutputStream compressed = new java.io.ByteArrayOutputStream();
+        try (java.util.zip.GZIPOutputStream gzip = new java.util.zip.GZIPOutputStream(compressed)) {
+            for (int i = 0; i < 1000; i++) {
+                gzip.write(("Jane Smith," + (200000000 + i) + "\nI456\n").getBytes());
+            }
+        }
+        byte[] bytes = compressed.toByteArray();
+        Files.write(tempDir.resolve("users/b.txt.gz"), java.util.Arrays.copyOf(bytes, bytes.length / 2));
+        ShardedInput input = new ShardedInput(new FileHandler(), 2);
+
+        java.io.UncheckedIOException e = assertThrows(java.io.UncheckedIOException.class,
+                () -> input.readUsers(tempDir.resolve("users").toString()));
+        assertTrue(e.getMessage().endsWith("b.txt.gz"));
+    }
+
+    @Test
+    @DisplayName("Duplicate user IDs are still caught across shards")
+    void testDuplicateUserAcrossShards() throws Exception {
+        shard("movies.txt", "The Dark Knight,TDK123\nAction,Thriller\n");
+        shard("users/a.txt", "John Doe,100000000\nTDK123\n");
+        shard("users/b.txt", "Jane Smith,100000000\nTDK123\n");
+        ShardedInput input = new ShardedInput(new FileHandler());
+        ArrayList<Movie> movies = input.readMovies(tempDir.resolve("movies.txt").toString());
+
+        ArrayList<User> users = input.readUsers(tempDir.resolve("users").toString());
+        String error = MovieRecommendationApp.validateUsers(users, new UserValidator(), new MovieIndex(movies));
+
+        assertEquals("ERROR: User Id 100000000 is wrong", error);
+    }
+
+    @Test
+    @DisplayName("Movie ID suffixes must still be unique across shards")
+    void testDuplicateMovieSuffixAcrossShards() throws Exception {
+        shard("movies/a.txt", "The Dark Knight,TDK123\nAction,Thriller\n");
+        shard("movies/b.txt", "Inception,I123\nAction,SciFi\n");
+
+        ArrayList<Movie> movies = new ShardedInput(new FileHandler()).readMovies(tempDir.resolve("movies").toString());
+        String error = MovieRecommendationApp.validateMovies(movies, new MovieValidator());
+
+        assertEquals("ERROR: Movie Id numbers I123 aren’t unique", error);
+    }
+}
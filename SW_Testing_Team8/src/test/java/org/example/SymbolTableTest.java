@@ -0,0 +1,150 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Equal values share one instance whatever they are read from")
+    void testCanonicalInstance() {
+        SymbolTable symbols = new SymbolTable();
+        String action = symbols.intern(new String("Action"));
+
+        assertSame(action, symbols.intern(new StringBuilder("Comedy,Action,Drama"), 7, 13));
+        ByteBuffer bytes = ByteBuffer.wrap("xAction".getBytes(StandardCharsets.US_ASCII));
+        assertSame(action, symbols.internAscii(bytes, 1, 7));
+        assertEquals("Act", symbols.intern("Action", 0, 3));
+        assertNotSame(action, symbols.intern("Drama"));
+        assertEquals(3, symbols.size());
+    }
+
+    @Test
+    @DisplayName("Non-ASCII bytes are left to the caller to decode")
+    void testNonAsciiBytes() {
+        SymbolTable symbols = new SymbolTable();
+        ByteBuffer bytes = ByteBuffer.wrap("Café".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(symbols.internAscii(bytes, 0, bytes.limit()));
+        CsvTokenizer tokenizer = new CsvTokenizer().reset(bytes, 0, bytes.limit());
+        String cafe = tokenizer.field(0, symbols);
+        assertEquals("Café", cafe);
+        assertSame(cafe, tokenizer.field(0, symbols));
+    }
+
+    @Test
+    @DisplayName("Hits and saved bytes are counted, the table grows as needed")
+    void testStatistics() {
+        SymbolTable symbols = new SymbolTable();
+        for (int i = 0; i < 10000; i++) {
+            symbols.intern("GENRE" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals("GENRE" + i, symbols.intern("GENRE" + i));
+        }
+        assertEquals(10000, symbols.size());
+        assertEquals(20000, symbols.getLookups());
+        assertEquals(10000, symbols.getHits());
+        assertTrue(symbols.getBytesSaved() >= 10000L * 48);
+        assertEquals(48, SymbolTable.stringSize("Action"));
+        assertTrue(symbols.report().contains("10000 duplicates"));
+    }
+
+    @Test
+    @DisplayName("Concurrent interning still gives one instance per value")
+    void testConcurrentIntern() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(pool.submit(() -> {
+                    List<String> interned = new ArrayList<>();
+                    for (int i = 0; i < 50000; i++) {
+                        interned.add(symbols.intern(new String("ID" + (i % 20000))));
+                    }
+                    return interned;
+                }));
+            }
+            List<String> first = results.get(0).get();
+            for (Future<List<String>> result : results) {
+                List<String> interned = result.get();
+                for (int i = 0; i < interned.size(); i++) {
+                    assertSame(first.get(i), interned.get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(20000, symbols.size());
+    }
+
+    @Test
+    @DisplayName("A full table hands out new values without keeping them")
+    void testMaxSize() {
+        SymbolTable symbols = new SymbolTable(100);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("GENRE" + i, symbols.intern("GENRE" + i));
+        }
+
+        assertEquals(100, symbols.size());
+        assertEquals(900, symbols.getRejected());
+        assertTrue(symbols.report().contains("900 values not shared"));
+        // values kept before the table filled up are still shared
+        int shared = 0;
+        for (int i = 0; i < 1000; i++) {
+            String value = "GENRE" + i;
+            if (symbols.intern(new String(value)) == symbols.intern(new String(value))) shared++;
+        }
+        assertEquals(100, shared);
+        assertEquals(0, new SymbolTable(0).size());
+        assertEquals("Action", new SymbolTable(0).intern("Action"));
+    }
+
+    @Test
+    @DisplayName("FileHandler readers share genre and movie ID instances")
+    void testFileHandlerSharesInstances() throws Exception {
+        Path movies = tempDir.resolve("movies.txt");
+        Path users = tempDir.resolve("users.txt");
+        Files.writeString(movies, "The Dark Knight,TDK123\nAction,Thriller\nInception,I456\nAction,SciFi\n");
+        Files.writeString(users, "John Doe,123456789\nTDK123,I456\nJane Smith,987654321\nI456\n");
+        FileHandler fileHandler = new FileHandler();
+
+        ArrayList<Movie> read = fileHandler.readMovies(movies.toString());
+        ArrayList<Movie> mapped = fileHandler.readMoviesMapped(movies.toString());
+        ArrayList<User> parallel = fileHandler.readUserParallel(users.toString());
+        ArrayList<User> sequential = fileHandler.readUser(users.toString());
+
+        String action = read.get(0).getGenres().get(0);
+        assertSame(action, read.get(1).getGenres().get(0));
+        assertSame(action, mapped.get(1).getGenres().get(0));
+        String inception = read.get(1).getMovieID();
+        assertSame(inception, mapped.get(1).getMovieID());
+        assertSame(inception, parallel.get(0).getLikedMoviesId().get(1));
+        assertSame(inception, parallel.get(1).getLikedMoviesId().get(0));
+        assertSame(inception, sequential.get(1).getLikedMoviesId().get(0));
+        // titles and user IDs are unique per record and stay out of the table
+        assertEquals(new HashSet<>(List.of("TDK123", "I456", "Action", "Thriller", "SciFi")).size(),
+                fileHandler.getSymbolTable().size());
+        assertTrue(fileHandler.getSymbolTable().getBytesSaved() > 0);
+    }
+}
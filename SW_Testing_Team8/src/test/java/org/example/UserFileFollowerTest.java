@@ -0,0 +1,166 @@
+package org.example;
+
+import org.Models.Movie;
+import org.Models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserFileFollowerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ArrayList<Movie> catalog() {
+        ArrayList<Movie> movies = new ArrayList<>();
+        movies.add(new Movie("The Dark Knight", "TDK123", new ArrayList<>(Arrays.asList("Action", "Thriller"))));
+        movies.add(new Movie("Inception", "I456", new ArrayList<>(Arrays.asList("Action", "SciFi"))));
+        movies.add(new Movie("The Notebook", "TN789", new ArrayList<>(Arrays.asList("Romance"))));
+        return movies;
+    }
+
+    private UserFileFollower follower(Path users, Path output) {
+        ArrayList<Movie> movies = catalog();
+        UserFileFollower follower = new UserFileFollower(users.toString(), movies,
+                new RecommendationEngine(new GenreIndex(movies)));
+        follower.setOutputPath(output.toString());
+        return follower;
+    }
+
+    private void append(Path file, String content) throws Exception {
+        Files.writeString(file, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    @DisplayName("Reader stops before a record whose lines are not terminated yet")
+    void testReaderWaitsForCompleteRecords() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        append(users, "John Doe,123456789\nTDK123,I456\nJane Smith,98765432");
+        UserRecordReader reader = new UserRecordReader(users.toString(), 0);
+        ArrayList<User> read = new ArrayList<>();
+
+        assertEquals(1, reader.readAvailable(100, read::add));
+        assertEquals("123456789", read.get(0).getId());
+        assertEquals(Arrays.asList("TDK123", "I456"), read.get(0).getLikedMoviesId());
+        long offset = reader.getOffset();
+        assertEquals("John Doe,123456789\nTDK123,I456\n".length(), offset);
+
+        append(users, "1\nTN789");
+        assertEquals(0, reader.readAvailable(100, read::add));
+        assertEquals(offset, reader.getOffset());
+
+        append(users, "\r\n");
+        assertEquals(1, reader.readAvailable(100, read::add));
+        assertEquals("987654321", read.get(1).getId());
+        assertEquals(Files.size(users), reader.getOffset());
+    }
+
+    @Test
+    @DisplayName("Reader skips a malformed record and resumes after it")
+    void testReaderSkipsMalformedRecord() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        append(users, "John Doe,123456789\nTDK123\nbroken\nTDK123\nJane Smith,987654321\nI456\n");
+        UserRecordReader reader = new UserRecordReader(users.toString(), 0);
+        ArrayList<User> read = new ArrayList<>();
+
+        assertThrows(java.io.IOException.class, () -> reader.readAvailable(100, read::add));
+        assertEquals(1, read.size());
+        assertEquals(1, reader.readAvailable(100, read::add));
+        assertEquals("987654321", read.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Only appended records are recommended and their output appended")
+    void testProcessAppended() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        Path output = tempDir.resolve("recommendations.txt");
+        Files.writeString(output, "stale output\n");
+        append(users, "John Doe,123456789\nTN789\n");
+        UserFileFollower follower = follower(users, output);
+
+        assertEquals(1, follower.processAppended());
+        assertEquals("John Doe, 123456789\nThe Notebook\n", Files.readString(output));
+
+        assertEquals(0, follower.processAppended());
+        append(users, "Jane Smith,987654321\nTDK123\n");
+        assertEquals(1, follower.processAppended());
+        assertEquals("John Doe, 123456789\nThe Notebook\n"
+                + "Jane Smith, 987654321\nThe Dark Knight, Inception\n", Files.readString(output));
+        assertEquals(2, follower.getProcessed());
+    }
+
+    @Test
+    @DisplayName("Invalid appended records are skipped without blocking later ones")
+    void testInvalidRecordsSkipped() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        Path output = tempDir.resolve("recommendations.txt");
+        append(users, "John Doe,123456789\nTN789\n");
+        UserFileFollower follower = follower(users, output);
+        follower.processAppended();
+
+        append(users, "Bad1 Name,111111111\nTN789\n"
+                + "John Again,123456789\nTN789\n"
+                + "No Likes,222222222\nXYZ999\n"
+                + "Jane Smith,987654321\nI456\n");
+        assertEquals(1, follower.processAppended());
+
+        assertEquals(3, follower.getSkipped());
+        assertEquals("John Doe, 123456789\nThe Notebook\n"
+                + "Jane Smith, 987654321\nThe Dark Knight, Inception\n", Files.readString(output));
+        assertTrue(follower.getUserValidator().getExceptionHandler().getErrorLog().isEmpty());
+    }
+
+    @Test
+    @DisplayName("The ID of a record skipped for its liked movies stays available")
+    void testSkippedRecordReleasesId() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        Path output = tempDir.resolve("recommendations.txt");
+        append(users, "No Likes,222222222\nXYZ999\n"
+                + "Jane Smith,222222222\nI456\n");
+        UserFileFollower follower = follower(users, output);
+
+        assertEquals(1, follower.processAppended());
+        assertEquals(1, follower.getSkipped());
+        assertEquals("Jane Smith, 222222222\nThe Dark Knight, Inception\n", Files.readString(output));
+        assertEquals(Arrays.asList("222222222"), follower.getUserValidator().getUserIdList());
+    }
+
+    @Test
+    @DisplayName("Follow picks up appends reported by the watch service")
+    void testFollow() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        Path output = tempDir.resolve("recommendations.txt");
+        append(users, "John Doe,123456789\nTN789\n");
+        UserFileFollower follower = follower(users, output);
+
+        Thread thread = new Thread(() -> {
+            try {
+                follower.follow();
+            } catch (Exception e) {
+                // interrupted by the test
+            }
+        });
+        thread.start();
+        try {
+            append(users, "Jane Smith,987654321\nTDK123\n");
+            long deadline = System.currentTimeMillis() + 10000;
+            while (follower.getProcessed() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            thread.interrupt();
+            thread.join(5000);
+        }
+
+        assertEquals(2, follower.getProcessed());
+        assertTrue(Files.readString(output).endsWith("Jane Smith, 987654321\nThe Dark Knight, Inception\n"));
+    }
+}
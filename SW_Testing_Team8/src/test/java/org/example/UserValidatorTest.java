@@ -162,5 +162,16 @@ class UserValidatorTest {
         assertEquals("ERROR: No Liked Movies Entered", validator.getExceptionHandler().getErrorLog().get(0));
     }
 
+    @Test
+    @DisplayName("Range overload validates a user name inside a line")
+    void testUserNameRange() {
+        StringBuilder line = new StringBuilder("John Doe,123456789, Jane");
+        assertTrue(validator.validateUserName(line, 0, 8));
+        assertTrue(validator.getExceptionHandler().getErrorLog().isEmpty());
 
-}
\ No newline at end of file
+        assertFalse(validator.validateUserName(line, 9, 18));
+        assertEquals("ERROR: User Name 123456789 is wrong", validator.getExceptionHandler().getErrorLog().get(0));
+        assertFalse(validator.validateUserName(line, 19, 24));
+        assertFalse(validator.validateUserName(line, 8, 8));
+    }
+}